@@ -0,0 +1,84 @@
+package co.uk.fluxanoia.bench;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+
+import co.uk.fluxanoia.graphics.GridBackground;
+import co.uk.fluxanoia.main.AudioManager;
+import co.uk.fluxanoia.main.GameContext;
+import co.uk.fluxanoia.main.Listener;
+import co.uk.fluxanoia.main.Main;
+import co.uk.fluxanoia.main.NullAudioManager;
+import co.uk.fluxanoia.main.ResourceManager;
+import co.uk.fluxanoia.map.Camera;
+import co.uk.fluxanoia.map.Terrain;
+import co.uk.fluxanoia.map.Tile;
+import co.uk.fluxanoia.map.Tile.TileType;
+
+// The BenchContext class, a headless game context with generated textures
+public class BenchContext implements GameContext {
+
+	// The width of a generated tileset in tiles
+	public static final int TILESET_WIDTH = 8;
+
+	// The input listener
+	private Listener listener;
+	// The audio manager, which plays nothing
+	private AudioManager audioManager;
+	// The resource manager, which never reads from disk
+	private ResourceManager resourceManager;
+
+	// Constructs a BenchContext
+	public BenchContext() {
+		this.listener = new Listener();
+		this.audioManager = new NullAudioManager();
+		this.resourceManager = new ResourceManager() {
+			public BufferedImage getImage(String path) {
+				return texture(TILESET_WIDTH * Terrain.GRID_SIZE, TILESET_WIDTH * Terrain.GRID_SIZE);
+			}
+		};
+	}
+
+	// The cell row that generated levels start at
+	public static final int FLOOR_Y = 10;
+
+	// Returns a terrain with no level loaded
+	public Terrain createTerrain() {
+		return new Terrain(this, new Camera(0, 0, Main.DRAW_WIDTH, Main.DRAW_HEIGHT),
+				new GridBackground(0, 0, 0, 0));
+	}
+
+	// Returns a square block of tiles starting at cell (0, FLOOR_Y)
+	public static ArrayList<Tile> createTiles(int amount) {
+		ArrayList<Tile> tiles = new ArrayList<>();
+		int width = (int) Math.ceil(Math.sqrt(amount));
+		int x, y;
+		for (int i = 0; i < amount; i++) {
+			x = i % width;
+			y = FLOOR_Y + i / width;
+			tiles.add(new Tile(x, y, x % TILESET_WIDTH, y % TILESET_WIDTH, TileType.COLLIDE));
+		}
+		return tiles;
+	}
+
+	// Returns an image filled with a pattern
+	public static BufferedImage texture(int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				image.setRGB(x, y, 0xFF000000 | ((x ^ y) & 0xFF) * 0x010101);
+			}
+		}
+		return image;
+	}
+
+	// Returns the Listener
+	public Listener getListener() { return listener; }
+	// Returns the AudioManager
+	public AudioManager getAudioManager() { return audioManager; }
+	// Returns the ResourceManager
+	public ResourceManager getResourceManager() { return resourceManager; }
+	// Returns the interpolation, drawing the latest update
+	public double getInterpolation() { return 1; }
+
+}
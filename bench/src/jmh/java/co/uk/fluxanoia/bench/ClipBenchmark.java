@@ -0,0 +1,98 @@
+package co.uk.fluxanoia.bench;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.uk.fluxanoia.graphics.DirtyRegion;
+import co.uk.fluxanoia.graphics.Drawable;
+import co.uk.fluxanoia.graphics.DrawableLayer;
+import co.uk.fluxanoia.graphics.DrawableLayer.Layer;
+import co.uk.fluxanoia.main.Main;
+
+// Times merging clip rectangles and collecting them from a layer's components
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClipBenchmark {
+
+	// The amount of rectangles and components
+	@Param({ "4", "64" })
+	public int count;
+
+	// The rectangles being merged, and the region they're added to
+	private ArrayList<Rectangle> rects;
+	private DirtyRegion region;
+	// The layer and its components
+	private DrawableLayer layer;
+	private Component[] components;
+
+	// A component that pushes the same clip every update
+	private static class Component extends Drawable {
+		private Rectangle clip;
+		public Component(Rectangle clip) {
+			this.clip = clip;
+		}
+		public void dirty() {
+			this.pushClipBounds(clip);
+		}
+		public void draw(Graphics2D g) {}
+	}
+
+	@Setup
+	public void setup() {
+		Random random = new Random(count);
+		rects = new ArrayList<>();
+		region = new DirtyRegion();
+		layer = new DrawableLayer() {
+			public void draw(Graphics2D g) {}
+		};
+		components = new Component[count];
+		Layer[] layers = Layer.values();
+		Rectangle r;
+		for (int i = 0; i < count; i++) {
+			r = new Rectangle(random.nextInt(Main.DRAW_WIDTH), random.nextInt(Main.DRAW_HEIGHT),
+					1 + random.nextInt(64), 1 + random.nextInt(64));
+			rects.add(r);
+			components[i] = new Component(r);
+			layer.addComponent(layers[i % layers.length], components[i]);
+		}
+	}
+
+	@Benchmark
+	public Rectangle encapsulate() {
+		return Drawable.encapsulate(rects);
+	}
+
+	@Benchmark
+	public DirtyRegion addToRegion() {
+		region.clear();
+		for (int i = 0; i < rects.size(); i++) region.add(rects.get(i));
+		return region;
+	}
+
+	@Benchmark
+	public DirtyRegion updateLayer() {
+		for (int i = 0; i < components.length; i++) components[i].dirty();
+		layer.updateLayer();
+		return layer.dropClipBounds();
+	}
+
+}
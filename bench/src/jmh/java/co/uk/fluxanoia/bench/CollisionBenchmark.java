@@ -0,0 +1,67 @@
+package co.uk.fluxanoia.bench;
+
+import java.awt.Graphics2D;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.uk.fluxanoia.entity.GravityEntity;
+import co.uk.fluxanoia.main.GameContext;
+import co.uk.fluxanoia.map.FrameSnapshot;
+import co.uk.fluxanoia.map.Terrain;
+import co.uk.fluxanoia.map.TileMap;
+
+// Times a gravity entity resolving its collision against levels of different sizes
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+
+	// The amount of tiles in the level
+	@Param({ "1000", "10000", "100000", "1000000" })
+	public int tiles;
+
+	// The level's tiles
+	private TileMap level;
+	// The entity colliding with the level
+	private GravityEntity entity;
+
+	// A gravity entity with the protagonist's physics and no animations
+	private static class Body extends GravityEntity {
+		public Body(GameContext context, Terrain terrain, int x, int y) {
+			super(EntityIndex.PROTAGONIST, context, terrain, x, y, 18, 34, 1.75, 0.4, 0.35, 7, 5, 9, 7, 0.8, 2);
+		}
+		public void update() {}
+		public void draw(Graphics2D g) {}
+		public void capture(FrameSnapshot s) {}
+	}
+
+	@Setup
+	public void setup() {
+		BenchContext context = new BenchContext();
+		Terrain terrain = context.createTerrain();
+		level = new TileMap(BenchContext.createTiles(tiles));
+		// Drop the entity onto the top of the level so it lands during warmup
+		entity = new Body(context, terrain, Terrain.GRID_SIZE * 4,
+				Terrain.GRID_SIZE * (BenchContext.FLOOR_Y - 2));
+	}
+
+	@Benchmark
+	public boolean updateCollision() {
+		return entity.updateCollision(level);
+	}
+
+}
@@ -0,0 +1,84 @@
+package co.uk.fluxanoia.bench;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.uk.fluxanoia.main.ResourceManager;
+import co.uk.fluxanoia.map.Cell;
+import co.uk.fluxanoia.map.LevelFile;
+import co.uk.fluxanoia.map.LevelReader;
+import co.uk.fluxanoia.map.Terrain;
+import co.uk.fluxanoia.map.Tile;
+import co.uk.fluxanoia.map.TileMap;
+
+// Times reading a generated level file into cells, from text and from its binary form
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LevelReadBenchmark {
+
+	// The amount of tiles in the level file
+	@Param({ "10000", "100000" })
+	public int tiles;
+
+	// The context and terrain the cells are read for
+	private BenchContext context;
+	private Terrain terrain;
+	// The names of the generated level file and its binary form
+	private String path, binaryPath;
+	// The cells read from the file
+	private ArrayList<Cell> cells;
+
+	@Setup
+	public void setup() {
+		context = new BenchContext();
+		terrain = context.createTerrain();
+		cells = new ArrayList<>();
+		// Write the level the same way the map tool saves one
+		StringBuilder sb = new StringBuilder();
+		for (Tile t : BenchContext.createTiles(tiles)) sb.append(t.getCellData()).append(' ');
+		ArrayList<String> lines = new ArrayList<>();
+		lines.add(sb.toString());
+		path = "bench_" + tiles + ".level";
+		ResourceManager.createFile(path, lines);
+		binaryPath = "bench_" + tiles + LevelFile.EXTENSION;
+		LevelFile.convert(path, binaryPath);
+	}
+
+	@TearDown
+	public void tearDown() {
+		new File(ResourceManager.getPath() + path).delete();
+		new File(ResourceManager.getPath() + binaryPath).delete();
+	}
+
+	@Benchmark
+	public ArrayList<Cell> readFile() {
+		LevelReader.readFile(cells, context, terrain, path);
+		return cells;
+	}
+
+	@Benchmark
+	public TileMap readBinary() {
+		TileMap map = new TileMap();
+		LevelFile.read(binaryPath, map, cells, context, terrain);
+		return map;
+	}
+
+}
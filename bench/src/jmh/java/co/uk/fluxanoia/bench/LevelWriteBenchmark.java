@@ -0,0 +1,57 @@
+package co.uk.fluxanoia.bench;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.uk.fluxanoia.main.ResourceManager;
+import co.uk.fluxanoia.map.Cell;
+import co.uk.fluxanoia.map.LevelCodec;
+
+// Times saving cells to a text level file the way the map tool does
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LevelWriteBenchmark {
+
+	// The amount of tiles written
+	@Param({ "10000", "100000" })
+	public int tiles;
+
+	// The cells written and the name of the file they're written to
+	private ArrayList<Cell> cells;
+	private String path;
+
+	@Setup
+	public void setup() {
+		cells = new ArrayList<Cell>(BenchContext.createTiles(tiles));
+		path = "bench_write_" + tiles + ".level";
+	}
+
+	@TearDown
+	public void tearDown() {
+		new File(ResourceManager.getPath() + path).delete();
+	}
+
+	@Benchmark
+	public void write() {
+		LevelCodec.write(path, cells);
+	}
+
+}
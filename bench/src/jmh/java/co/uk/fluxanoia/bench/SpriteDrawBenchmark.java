@@ -0,0 +1,89 @@
+package co.uk.fluxanoia.bench;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.uk.fluxanoia.graphics.SpriteCache;
+import co.uk.fluxanoia.graphics.TileAtlas;
+import co.uk.fluxanoia.main.Main;
+
+// Times drawing a screen of flipped and rotated sprites, through a transform
+// each time and from the cache of transformed tiles
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpriteDrawBenchmark {
+
+	// The size of a sprite
+	private static final int SIZE = 40;
+
+	// The amount of sprites drawn
+	@Param({ "10", "100", "1000" })
+	public int sprites;
+
+	// The sheet the sprites come from and its cache
+	private TileAtlas atlas;
+	private SpriteCache cache;
+	// The image being drawn to and its graphics
+	private BufferedImage image;
+	private Graphics2D g;
+
+	@Setup
+	public void setup() {
+		int size = BenchContext.TILESET_WIDTH * SIZE;
+		atlas = new TileAtlas(BenchContext.texture(size, size), SIZE, SIZE);
+		cache = atlas.getSpriteCache();
+		image = new BufferedImage(Main.DRAW_WIDTH, Main.DRAW_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+		g = image.createGraphics();
+	}
+
+	@TearDown
+	public void tearDown() {
+		g.dispose();
+	}
+
+	@Benchmark
+	public BufferedImage drawTransformed() {
+		AffineTransform at = new AffineTransform();
+		for (int i = 0; i < sprites; i++) {
+			at.setToTranslation(x(i), y(i));
+			at.rotate(rotation(i));
+			g.setTransform(at);
+			g.drawImage(atlas.getTile(i % BenchContext.TILESET_WIDTH, 0), SIZE / 2, -SIZE / 2, -SIZE, SIZE, null);
+		}
+		g.setTransform(new AffineTransform());
+		return image;
+	}
+
+	@Benchmark
+	public BufferedImage drawCached() {
+		for (int i = 0; i < sprites; i++) {
+			cache.draw(g, i % BenchContext.TILESET_WIDTH, 0, x(i), y(i), rotation(i), SIZE / 2, -SIZE / 2, -SIZE, SIZE);
+		}
+		return image;
+	}
+
+	// Returns where a sprite is centred and how far it's turned
+	private static double x(int i) { return (i * 37) % Main.DRAW_WIDTH; }
+	private static double y(int i) { return (i * 53) % Main.DRAW_HEIGHT; }
+	private static double rotation(int i) { return Math.toRadians((i % 8) * 5); }
+
+}
@@ -0,0 +1,81 @@
+package co.uk.fluxanoia.bench;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.uk.fluxanoia.main.Main;
+import co.uk.fluxanoia.map.Terrain;
+import co.uk.fluxanoia.map.TileMap;
+
+// Times drawing the terrain into an offscreen image the size of the draw image,
+// with the camera still and with it scrolling
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TerrainDrawBenchmark {
+
+	// The amount of tiles in the level
+	@Param({ "1000", "10000", "100000" })
+	public int tiles;
+
+	// The terrain being drawn
+	private Terrain terrain;
+	// How far the camera has been scrolled
+	private int scroll;
+	// The image being drawn to and its graphics
+	private BufferedImage image;
+	private Graphics2D g;
+
+	@Setup
+	public void setup() {
+		BenchContext context = new BenchContext();
+		terrain = context.createTerrain();
+		terrain.setTiles(new TileMap(BenchContext.createTiles(tiles)));
+		// Look at the top of the level so the view is full of tiles
+		terrain.getCamera().setPosition(0, Terrain.GRID_SIZE * BenchContext.FLOOR_Y,
+				Main.DRAW_WIDTH, Main.DRAW_HEIGHT);
+		terrain.capture();
+		image = new BufferedImage(Main.DRAW_WIDTH, Main.DRAW_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+		g = image.createGraphics();
+	}
+
+	@TearDown
+	public void tearDown() {
+		g.dispose();
+	}
+
+	@Benchmark
+	public BufferedImage draw() {
+		terrain.draw(g);
+		return image;
+	}
+
+	@Benchmark
+	public BufferedImage drawScrolling() {
+		// Follow a camera moving a few pixels each frame, back and forth over the level
+		scroll = (scroll + 3) % (Main.DRAW_WIDTH * 4);
+		terrain.getCamera().setPosition(Math.abs(scroll - Main.DRAW_WIDTH * 2),
+				Terrain.GRID_SIZE * BenchContext.FLOOR_Y, Main.DRAW_WIDTH, Main.DRAW_HEIGHT);
+		terrain.capture();
+		terrain.draw(g);
+		return image;
+	}
+
+}
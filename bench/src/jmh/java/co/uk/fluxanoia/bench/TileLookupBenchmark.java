@@ -0,0 +1,69 @@
+package co.uk.fluxanoia.bench;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.uk.fluxanoia.graphics.TileAtlas;
+import co.uk.fluxanoia.main.ResourceManager;
+import co.uk.fluxanoia.map.Terrain;
+
+// Times looking up a tile texture, both inside and outside the tileset, with and without an atlas
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TileLookupBenchmark {
+
+	// The tileset and the empty texture
+	private BufferedImage tileset, empty;
+	// The tileset sliced into tiles
+	private TileAtlas atlas;
+	// The tile being looked up
+	private int index;
+
+	@Setup
+	public void setup() {
+		int size = BenchContext.TILESET_WIDTH * Terrain.GRID_SIZE;
+		tileset = BenchContext.texture(size, size);
+		empty = BenchContext.texture(Terrain.GRID_SIZE, Terrain.GRID_SIZE);
+		atlas = new TileAtlas(tileset, Terrain.GRID_SIZE, Terrain.GRID_SIZE);
+	}
+
+	@Benchmark
+	public BufferedImage getTile() {
+		index = (index + 1) % (BenchContext.TILESET_WIDTH * BenchContext.TILESET_WIDTH);
+		return ResourceManager.getTile(tileset, empty, index % BenchContext.TILESET_WIDTH,
+				index / BenchContext.TILESET_WIDTH, Terrain.GRID_SIZE);
+	}
+
+	@Benchmark
+	public BufferedImage getMissingTile() {
+		return ResourceManager.getTile(tileset, empty, BenchContext.TILESET_WIDTH,
+				BenchContext.TILESET_WIDTH, Terrain.GRID_SIZE);
+	}
+
+	@Benchmark
+	public BufferedImage getAtlasTile() {
+		index = (index + 1) % (BenchContext.TILESET_WIDTH * BenchContext.TILESET_WIDTH);
+		return atlas.getTile(index % BenchContext.TILESET_WIDTH, index / BenchContext.TILESET_WIDTH, empty);
+	}
+
+	@Benchmark
+	public BufferedImage getMissingAtlasTile() {
+		return atlas.getTile(BenchContext.TILESET_WIDTH, BenchContext.TILESET_WIDTH, empty);
+	}
+
+}
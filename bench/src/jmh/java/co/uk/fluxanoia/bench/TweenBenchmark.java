@@ -0,0 +1,77 @@
+package co.uk.fluxanoia.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.uk.fluxanoia.util.Tween;
+import co.uk.fluxanoia.util.TweenEngine;
+import co.uk.fluxanoia.util.Tween.TweenType;
+
+// Times reading the value of a tween halfway through its movement, and updating
+// an engine full of tweens where only a few of them are moving
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TweenBenchmark {
+
+	// The duration of the movement in updates
+	private static final int DURATION = 60;
+	// The amount of tweens in the engine and how many of them keep moving
+	private static final int TWEENS = 100;
+	private static final int MOVING = 10;
+
+	// The type of movement
+	@Param({ "LINEAR", "EASE_IN", "EASE_OUT", "ELASTIC" })
+	public String type;
+	private TweenType tweenType;
+
+	// The tween being read
+	private Tween tween;
+	// The engine being updated and its moving tweens
+	private TweenEngine engine;
+	private Tween[] moving;
+
+	@Setup
+	public void setup() {
+		tweenType = TweenType.valueOf(type);
+		tween = new Tween(0);
+		tween.move(tweenType, 1000, DURATION, 0);
+		for (int i = 0; i < DURATION / 2; i++) tween.update();
+		engine = new TweenEngine(TWEENS);
+		moving = new Tween[MOVING];
+		for (int i = 0; i < TWEENS; i++) {
+			if (i < MOVING) moving[i] = engine.create(0);
+			else engine.create(0);
+		}
+	}
+
+	@Benchmark
+	public double value() {
+		return tween.value();
+	}
+
+	@Benchmark
+	public int update() {
+		// Start any moving tweens again once they arrive
+		for (Tween t : moving) {
+			if (t.hasArrived()) t.move(tweenType, t.value() == 0 ? 1000 : 0, DURATION, 0);
+		}
+		engine.update();
+		return engine.getActive();
+	}
+
+}
@@ -8,7 +8,8 @@ public abstract class Controller {
 
 	// The enum containing all types of controller
 	public enum ControllerType {
-		PLAYER("plr");
+		PLAYER("plr"),
+		SCRIPTED("scr");
 		
 		private String id;
 		ControllerType(String id) {
@@ -34,6 +35,8 @@ public abstract class Controller {
 			switch (ct) {
 			case PLAYER:
 				return new PlayerController(listener);
+			case SCRIPTED:
+				return new ScriptedController(listener);
 			}
 			return null;
 		}
@@ -0,0 +1,128 @@
+package co.uk.fluxanoia.control;
+
+import java.util.ArrayList;
+
+import co.uk.fluxanoia.main.ErrorHandler;
+import co.uk.fluxanoia.main.Listener;
+
+// The ScriptedController class, replays a fixed sequence of held inputs
+public class ScriptedController extends Controller {
+
+	// The separators used in script strings, e.g. "RIGHT:60 RIGHT+UP:10 NONE:30"
+	private static final String STEP_SEP = " ";
+	private static final String INPUT_SEP = "\\+";
+	private static final String TICK_SEP = ":";
+	// The name of a step with nothing held
+	private static final String NO_INPUT = "NONE";
+
+	// The inputs held for each step
+	private ArrayList<boolean[]> steps;
+	// The amount of updates each step lasts
+	private ArrayList<Integer> durations;
+	// Whether the script starts again when it ends
+	private boolean loop;
+	// The current step and the updates spent in it
+	private int step, ticks;
+
+	// The inputs of the controller, indexed by input type
+	private boolean[] pressedInput;
+	private boolean[] heldInput;
+	private boolean[] releasedInput;
+
+	// Constructs a scripted controller
+	public ScriptedController(Listener listener) {
+		this(listener, false);
+	}
+	public ScriptedController(Listener listener, boolean loop) {
+		// Construct the controller
+		super(ControllerType.SCRIPTED, listener);
+		// Assign values
+		this.loop = loop;
+		// Initialise values
+		this.steps = new ArrayList<>();
+		this.durations = new ArrayList<>();
+		this.step = 0;
+		this.ticks = 0;
+		int n = InputType.values().length;
+		this.pressedInput = new boolean[n];
+		this.heldInput = new boolean[n];
+		this.releasedInput = new boolean[n];
+	}
+
+	// Updates the scripted controller
+	public void update() {
+		// Find the inputs held for this update
+		boolean[] held = null;
+		if (step < steps.size()) {
+			held = steps.get(step);
+			ticks++;
+			if (ticks >= durations.get(step)) {
+				ticks = 0;
+				step++;
+				if (step == steps.size() && loop) step = 0;
+			}
+		}
+		// Compare them to the last update
+		for (int i = 0; i < heldInput.length; i++) {
+			boolean h = held != null && held[i];
+			pressedInput[i] = h && !heldInput[i];
+			releasedInput[i] = !h && heldInput[i];
+			heldInput[i] = h;
+		}
+	}
+
+	// Adds a step to the end of the script
+	public void addStep(int duration, InputType... held) {
+		ErrorHandler.checkNull((Object) held, "A ScriptedController was given a null set of inputs.");
+		ErrorHandler.checkNull((Object[]) held, "A ScriptedController was given a null input.");
+		if (duration <= 0) return;
+		boolean[] step = new boolean[heldInput.length];
+		for (int i = 0; i < held.length; i++) step[held[i].ordinal()] = true;
+		steps.add(step);
+		durations.add(duration);
+	}
+
+	// Adds the steps described by a script string
+	public void parseScript(String s) {
+		ErrorHandler.checkNull(s, "A ScriptedController was given a null script.");
+		String[] parts, names;
+		for (String token : s.trim().split(STEP_SEP)) {
+			parts = token.split(TICK_SEP);
+			if (parts.length != 2) continue;
+			int duration;
+			try {
+				duration = Integer.valueOf(parts[1]);
+			} catch (NumberFormatException e) {
+				continue;
+			}
+			names = parts[0].split(INPUT_SEP);
+			ArrayList<InputType> held = new ArrayList<>();
+			for (int i = 0; i < names.length; i++) {
+				if (names[i].equals(NO_INPUT)) continue;
+				try {
+					held.add(InputType.valueOf(names[i]));
+				} catch (IllegalArgumentException e) {
+					continue;
+				}
+			}
+			addStep(duration, held.toArray(new InputType[held.size()]));
+		}
+	}
+
+	// Returns whether the script has finished
+	public boolean isFinished() {
+		return step >= steps.size();
+	}
+
+	// Returns data on control
+	public boolean isPressed(InputType it) {
+		return pressedInput[it.ordinal()];
+	}
+	public boolean isHeld(InputType it) {
+		return heldInput[it.ordinal()];
+	}
+	public boolean isReleased(InputType it) {
+		return releasedInput[it.ordinal()];
+	}
+
+}
@@ -1,25 +1,12 @@
 package co.uk.fluxanoia.entity;
 
-import java.awt.Point;
-
 import co.uk.fluxanoia.main.ErrorHandler;
 
-// The Animation class, represents a single animation for an entity
+// The Animation class, the playback of a shared animation definition by a single entity
 public class Animation {
 	
-	// The position of the indexed texture
-	private Point[] textures;
-	// The time for the animation to move on
-	private int[] durations;
-	// The positions/sizes of the textures relative to the centre
-	private AnimationTween[] x;
-	private AnimationTween[] y;
-	private AnimationTween[] w;
-	private AnimationTween[] h;
-	// The rotations of the textures
-	private AnimationTween[] rotations;
-	// The centre points of rotations
-	private Point[] centres;
+	// The frames being played
+	private AnimationDefinition definition;
 	// The amount of loops since the animation started
 	private int loops;
 	// The amount of loops to end the animation
@@ -30,35 +17,40 @@ public class Animation {
 	private int ticks;
 	// The current animation index
 	private int index;
+	// Whether the current frame's tweens have started, have reached their end and have moved
+	private boolean tweenStarted, tweenFinished, tweenMoved;
+	// The amount of updates since the current frame's tweens started
+	private int tweenTime;
+	// The current bounds and rotation, worked out whenever the animation moves
+	private double x, y, width, height, rotation;
 
 	// Constructs an animation
-	public Animation(Point[] textures, int[] durations, AnimationTween[] x, AnimationTween[] y,
-			AnimationTween[] w, AnimationTween[] h,
-			AnimationTween[] rotations, Point[] centres) {
+	public Animation(AnimationDefinition definition) {
 		// Check for null values
-		ErrorHandler.checkNull((Object) textures, "An Animation was given a null set of texture indexes.");
-		ErrorHandler.checkNull((Object[]) textures, "An Animation was given a null texture index.");
+		ErrorHandler.checkNull(definition, "An Animation was given a null definition.");
 		// Assign values
-		this.x = x;
-		this.y = y;
-		this.w = w;
-		this.h = h;
-		this.textures = textures;
-		this.durations = durations;
-		this.rotations = rotations;
-		this.centres = centres;
+		this.definition = definition;
 		// Initialise values
 		this.loops = 0;
 		this.ticks = 0;
 		this.index = 0;
 		this.reqLoops = -1;
 		this.finished = true;
+		this.resetTweens();
+		this.refresh();
 	}
 
 	// Updates the animation
 	public boolean update() {
-		boolean moved = false;
 		if (finished) return false;
+		boolean moved = this.advance();
+		this.refresh();
+		return moved;
+	}
+
+	// Moves the animation on by an update
+	private boolean advance() {
+		boolean moved = false;
 		// Update the tweens
 		moved |= this.updateTweens();
 		if (ticks == getDuration()) {
@@ -66,9 +58,9 @@ public class Animation {
 			ticks = 0;
 			this.resetTweens();
 			index++;
-			if (index < textures.length) this.startTweens();
+			if (index < definition.getFrames()) this.startTweens();
 			moved = true;
-			if (index == textures.length) {
+			if (index == definition.getFrames()) {
 				// If at the end of the array, move to the front
 				index = 0;
 				if (loops != reqLoops) this.startTweens();
@@ -92,6 +84,7 @@ public class Animation {
 		this.index = 0;
 		this.startTweens();
 		this.reqLoops = reqLoops;
+		this.refresh();
 	}
 	
 	// Resets the animation
@@ -101,107 +94,97 @@ public class Animation {
 		this.reqLoops = -1;
 		this.index = 0;
 		this.ticks = 0;
+		this.refresh();
 	}
 
-	// Updates all the tweens safely
+	// Moves the current frame's tweens on, returning whether they moved
 	private boolean updateTweens() {
-		boolean moved = false;
-		if (getTweenX() != null) moved |= getTweenX().update();
-		if (getTweenY() != null) moved |= getTweenY().update();
-		if (getTweenWidth() != null) moved |= getTweenWidth().update();
-		if (getTweenHeight() != null) moved |= getTweenHeight().update();
-		if (getTweenRotation() != null) moved |= getTweenRotation().update();
+		if (tweenTime == getTweenDuration()) {
+			if (!tweenFinished) {
+				tweenMoved = true;
+				tweenFinished = true;
+			}
+		} else {
+			tweenTime++;
+			tweenMoved = true;
+		}
+		boolean moved = tweenMoved && definition.hasBounds();
+		tweenMoved = false;
 		return moved;
 	}
 	
-	// Starts all the tweens safely
-	private boolean startTweens() {
-		boolean moved = false;
-		if (getTweenX() != null) getTweenX().start();
-		if (getTweenY() != null) getTweenY().start();
-		if (getTweenWidth() != null) getTweenWidth().start();
-		if (getTweenHeight() != null) getTweenHeight().start();
-		if (getTweenRotation() != null) getTweenRotation().start();
-		return moved;
+	// Starts the current frame's tweens
+	private void startTweens() {
+		this.tweenStarted = true;
+		this.tweenFinished = false;
+		this.tweenMoved = true;
+		this.tweenTime = 0;
 	}
 	
-	// Starts all the tweens safely
-	private boolean resetTweens() {
-		boolean moved = false;
-		if (getTweenX() != null) getTweenX().reset();
-		if (getTweenY() != null) getTweenY().reset();
-		if (getTweenWidth() != null) getTweenWidth().reset();
-		if (getTweenHeight() != null) getTweenHeight().reset();
-		if (getTweenRotation() != null) getTweenRotation().reset();
-		return moved;
+	// Puts the current frame's tweens back to their start
+	private void resetTweens() {
+		this.tweenStarted = false;
+		this.tweenFinished = true;
+		this.tweenMoved = true;
+		this.tweenTime = 0;
 	}
 	
-	// Returns the current duration
-	public int getDuration() {
-		if (durations == null) return -1;
-		return durations[index];
-	}
-
-	// Returns the current position
-	public double getX() {
-		if (x == null) return 0;
-		return x[index].value();
-	}
-	public double getY() {
-		if (y == null) return 0;
-		return y[index].value();
-	}
-	public double getWidth() {
-		if (w == null) return 0;
-		if (w[index].value() < 0) return 0;
-		return w[index].value();
-	}
-	public double getHeight() {
-		if (h == null) return 0;
-		if (h[index].value() < 0) return 0;
-		return h[index].value();
+	// Returns the length of the current frame's tweens, which don't move until started
+	private int getTweenDuration() {
+		if (!tweenStarted || !definition.hasBounds()) return 0;
+		return definition.getX(index).getDuration();
 	}
 	
-	// Returns the position tweens
-	public AnimationTween getTweenX() {
-		if (x == null) return null;
-		return x[index];
-	}
-	public AnimationTween getTweenY() {
-		if (y == null) return null;
-		return y[index];
-	}
-	public AnimationTween getTweenWidth() {
-		if (w == null) return null;
-		return w[index];
+	// Works out the current bounds and rotation from the current frame's tweens
+	private void refresh() {
+		if (definition.hasBounds()) {
+			x = value(definition.getX(index));
+			y = value(definition.getY(index));
+			width = Math.max(0, value(definition.getWidth(index)));
+			height = Math.max(0, value(definition.getHeight(index)));
+		}
+		if (definition.hasRotations()) rotation = value(definition.getRotation(index));
 	}
-	public AnimationTween getTweenHeight() {
-		if (h == null) return null;
-		return h[index];
+
+	// Returns the value of one of the current frame's tweens
+	private double value(AnimationTween t) {
+		if (!tweenStarted) return t.getBefore();
+		return t.value(tweenTime);
 	}
-	public AnimationTween getTweenRotation() {
-		if (rotations == null) return null;
-		return rotations[index];
+	
+	// Returns the current duration
+	public int getDuration() {
+		return definition.getDuration(index);
 	}
 
+	// Returns the current position
+	public double getX() { return x; }
+	public double getY() { return y; }
+	public double getWidth() { return width; }
+	public double getHeight() { return height; }
+
 	// Returns the current rotation
-	public double getRotation() {
-		if (rotations == null) return 0;
-		return rotations[index].value();
-	}
+	public double getRotation() { return rotation; }
 
 	// Returns the current centre
-	public Point getCentre() {
-		if (centres == null) return new Point(0, 0);
-		return centres[index];
+	public int getCentreX() {
+		return definition.getCentreX(index);
+	}
+	public int getCentreY() {
+		return definition.getCentreY(index);
 	}
 	
 	// Returns the texture indices
 	public int getTextureX() {
-		return (int) textures[index].getX();
+		return definition.getTextureX(index);
 	}
 	public int getTextureY() {
-		return (int) textures[index].getY();
+		return definition.getTextureY(index);
+	}
+
+	// Returns the definition being played
+	public AnimationDefinition getDefinition() {
+		return definition;
 	}
 
 	// Returns whether the animation is over or not
@@ -0,0 +1,162 @@
+package co.uk.fluxanoia.entity;
+
+import java.util.ArrayList;
+
+import co.uk.fluxanoia.main.ErrorHandler;
+import co.uk.fluxanoia.main.ResourceManager;
+import co.uk.fluxanoia.util.Tween.TweenType;
+
+// The AnimationDefinition class, the frames of an animation as read from its file,
+// never changed once made so that every entity playing it can share it
+public class AnimationDefinition {
+
+	// The position of each frame's texture
+	private final int[] textureX, textureY;
+	// The time for each frame to move on, or null if the first frame is held
+	private final int[] durations;
+	// The positions/sizes of the textures relative to the centre, or null if there are none
+	private final AnimationTween[] x, y, w, h;
+	// The rotations of the textures, or null if there are none
+	private final AnimationTween[] rotations;
+	// The centre points of rotations, or null if there are none
+	private final int[] centreX, centreY;
+
+	// Constructs an AnimationDefinition, copying the arrays given
+	public AnimationDefinition(int[] textureX, int[] textureY, int[] durations,
+			AnimationTween[] x, AnimationTween[] y, AnimationTween[] w, AnimationTween[] h,
+			AnimationTween[] rotations, int[] centreX, int[] centreY) {
+		// Check for null values
+		ErrorHandler.checkNull(textureX, "An AnimationDefinition was given a null set of texture indexes.");
+		ErrorHandler.checkNull(textureY, "An AnimationDefinition was given a null set of texture indexes.");
+		int frames = textureX.length;
+		if (textureY.length != frames || frames == 0)
+			throw new IllegalArgumentException("An AnimationDefinition was given mismatched texture indexes.");
+		// Assign values
+		this.textureX = textureX.clone();
+		this.textureY = textureY.clone();
+		this.durations = copy(durations, frames);
+		this.x = copy(x, frames);
+		this.y = copy(y, frames);
+		this.w = copy(w, frames);
+		this.h = copy(h, frames);
+		this.rotations = copy(rotations, frames);
+		this.centreX = copy(centreX, frames);
+		this.centreY = copy(centreY, frames);
+	}
+
+	// Returns a copy of an array checked to have a value for each frame, or null
+	private static int[] copy(int[] a, int frames) {
+		if (a == null) return null;
+		if (a.length < frames)
+			throw new IllegalArgumentException("An AnimationDefinition was given too few values.");
+		return a.clone();
+	}
+	private static AnimationTween[] copy(AnimationTween[] a, int frames) {
+		if (a == null) return null;
+		if (a.length < frames)
+			throw new IllegalArgumentException("An AnimationDefinition was given too few tweens.");
+		ErrorHandler.checkNull((Object[]) a, "An AnimationDefinition was given a null tween.");
+		return a.clone();
+	}
+
+	// Reads an animation file, returning null if it's malformed
+	public static AnimationDefinition read(String path) {
+		ArrayList<String> content = ResourceManager.readFile(path);
+		// Getting textures
+		if (content.size() < 1) return null;
+		String[] data, parts;
+		parts = content.get(0).split(" ");
+		int[] tx = new int[parts.length];
+		int[] ty = new int[parts.length];
+		for (int i = 0; i < parts.length; i++) {
+			data = parts[i].split("_");
+			if (data.length != 2) return null;
+			tx[i] = Integer.valueOf(data[0]);
+			ty[i] = Integer.valueOf(data[1]);
+		}
+		// Getting durations
+		if (content.size() < 2)
+			return new AnimationDefinition(tx, ty, null, null, null, null, null, null, null, null);
+		parts = content.get(1).split(" ");
+		if (parts.length < tx.length) return null;
+		int[] durations = new int[tx.length];
+		for (int i = 0; i < tx.length; i++) {
+			durations[i] = Integer.valueOf(parts[i]);
+		}
+		// Getting (x, y, w, h)s
+		if (content.size() < 3)
+			return new AnimationDefinition(tx, ty, durations, null, null, null, null, null, null, null);
+		parts = content.get(2).split(" ");
+		if (parts.length < tx.length) return null;
+		TweenType tweenType;
+		AnimationTween[] x, y, w, h;
+		x = new AnimationTween[tx.length];
+		y = new AnimationTween[tx.length];
+		w = new AnimationTween[tx.length];
+		h = new AnimationTween[tx.length];
+		for (int i = 0; i < tx.length; i++) {
+			data = parts[i].split("_");
+			if (data.length != 9) return null;
+			tweenType = TweenType.toTweenType(data[0]);
+			if (tweenType == null) return null;
+			x[i] = new AnimationTween(Double.valueOf(data[1]),
+					Double.valueOf(data[2]), durations[i], tweenType);
+			y[i] = new AnimationTween(Double.valueOf(data[3]),
+					Double.valueOf(data[4]), durations[i], tweenType);
+			w[i] = new AnimationTween(Double.valueOf(data[5]),
+					Double.valueOf(data[6]), durations[i], tweenType);
+			h[i] = new AnimationTween(Double.valueOf(data[7]),
+					Double.valueOf(data[8]), durations[i], tweenType);
+		}
+		// Getting rotations
+		if (content.size() < 4)
+			return new AnimationDefinition(tx, ty, durations, x, y, w, h, null, null, null);
+		parts = content.get(3).split(" ");
+		if (parts.length < tx.length) return null;
+		AnimationTween[] rotations = new AnimationTween[tx.length];
+		int[] cx = new int[tx.length];
+		int[] cy = new int[tx.length];
+		for (int i = 0; i < tx.length; i++) {
+			data = parts[i].split("_");
+			if (data.length != 5) return null;
+			tweenType = TweenType.toTweenType(data[0]);
+			if (tweenType == null) return null;
+			rotations[i] = new AnimationTween(Double.valueOf(data[1]),
+					Double.valueOf(data[2]), durations[i], tweenType);
+			cx[i] = Integer.valueOf(data[3]);
+			cy[i] = Integer.valueOf(data[4]);
+		}
+		// Return the animation
+		return new AnimationDefinition(tx, ty, durations, x, y, w, h, rotations, cx, cy);
+	}
+
+	// Returns the amount of frames
+	public int getFrames() { return textureX.length; }
+	// Returns the texture indices of a frame
+	public int getTextureX(int frame) { return textureX[frame]; }
+	public int getTextureY(int frame) { return textureY[frame]; }
+	// Returns the duration of a frame, or -1 if the first frame is held
+	public int getDuration(int frame) {
+		if (durations == null) return -1;
+		return durations[frame];
+	}
+	// Returns whether the frames have position, size and rotation tweens
+	public boolean hasBounds() { return x != null; }
+	public boolean hasRotations() { return rotations != null; }
+	// Returns the tweens of a frame
+	public AnimationTween getX(int frame) { return x[frame]; }
+	public AnimationTween getY(int frame) { return y[frame]; }
+	public AnimationTween getWidth(int frame) { return w[frame]; }
+	public AnimationTween getHeight(int frame) { return h[frame]; }
+	public AnimationTween getRotation(int frame) { return rotations[frame]; }
+	// Returns the centre of rotation of a frame
+	public int getCentreX(int frame) {
+		if (centreX == null) return 0;
+		return centreX[frame];
+	}
+	public int getCentreY(int frame) {
+		if (centreY == null) return 0;
+		return centreY[frame];
+	}
+
+}
@@ -4,17 +4,15 @@ import co.uk.fluxanoia.main.ErrorHandler;
 import co.uk.fluxanoia.util.Tween;
 import co.uk.fluxanoia.util.Tween.TweenType;
 
-// The AnimationTween class, represents a change in value during an animation
+// The AnimationTween class, represents a change in value during a frame of an animation
 public class AnimationTween {
 
-	// The tween value
-	private Tween tween;
 	// The tween type
-	private TweenType type;
+	private final TweenType type;
 	// The duration
-	private int duration;
+	private final int duration;
 	// The before and after values
-	private double before, after;
+	private final double before, after;
 	
 	// Constructs an animation tween
 	public AnimationTween(double before, double after, int duration, TweenType type) {
@@ -25,29 +23,16 @@ public class AnimationTween {
 		this.after = after;
 		this.duration = duration;
 		this.type = type;
-		// Initialise values
-		this.tween = new Tween(before);
 	}
 
-	// Starts the animation tween
-	public void start() {
-		this.tween.move(type, after, duration, 0);
+	// Returns the value a number of updates after the tween starts
+	public double value(int time) {
+		return Tween.value(type, before, after, time, duration);
 	}
 	
-	// Resets the animation tween
-	public void reset() {
-		this.tween.set(before);
-	}
-	
-	// Updates the animation tween
-	public boolean update() {
-		tween.update();
-		return tween.dropMoved();
-	}
-	
-	// Returns the value of the tween
-	public double value() {
-		return tween.value();
-	}
+	// Returns the value before the tween starts
+	public double getBefore() { return before; }
+	// Returns the duration
+	public int getDuration() { return duration; }
 	
-}
\ No newline at end of file
+}
@@ -1,47 +1,53 @@
 package co.uk.fluxanoia.entity;
 
-import java.awt.Dimension;
 import java.awt.Graphics2D;
-import java.awt.Point;
 import java.awt.Rectangle;
-import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 
-import co.uk.fluxanoia.graphics.Display;
+import co.uk.fluxanoia.graphics.Drawable;
+import co.uk.fluxanoia.graphics.TileAtlas;
 import co.uk.fluxanoia.main.ErrorHandler;
-import co.uk.fluxanoia.main.ResourceManager;
 import co.uk.fluxanoia.map.Camera;
-import co.uk.fluxanoia.util.Tween.TweenType;
+import co.uk.fluxanoia.map.FrameSnapshot;
 
 // The Animator class, manages entity visuals
 public class Animator {
 
-	// The tileset of the entity
-	private BufferedImage tileset;
-	// The size of tiles in the tileset
-	private Dimension tileSize;
+	// The tileset of the entity, sliced into frames
+	private TileAtlas tileset;
 	// The animations for the animator
 	private ArrayList<Animation> animations;
 	// The current animation
 	private int animIndex;
 	// Whether the animation has changed since last checked
 	private boolean moved;
+	// The animation, its position, size and rotation at the end of the last update
+	private int prevIndex;
+	private double prevX, prevY, prevW, prevH, prevRotation;
 
 	// Constructs an animator
 	public Animator() {
 		// Initialise values
 		this.tileset = null;
-		this.tileSize = null;
 		this.moved = false;
 		this.animIndex = 0;
+		this.prevIndex = -1;
 		this.animations = new ArrayList<>();
 	}
 
 	// Updates the animator
 	public boolean update() {
 		if (animations.isEmpty()) return false;
-		return this.animations.get(animIndex).update();
+		// Keep the state to draw between updates
+		Animation a = this.animations.get(animIndex);
+		this.prevIndex = animIndex;
+		this.prevX = a.getX();
+		this.prevY = a.getY();
+		this.prevW = a.getWidth();
+		this.prevH = a.getHeight();
+		this.prevRotation = a.getRotation();
+		return a.update();
 	}
 
 	// Draws the image at the required x and y values
@@ -50,119 +56,84 @@ public class Animator {
 	}
 	public void drawImage(Graphics2D g, Camera c, Rectangle box, boolean flip) {
 		// If we can't draw, return
-		if (tileset == null || tileSize == null || animations.isEmpty()) return;
+		if (tileset == null || animations.isEmpty()) return;
+		Animation a = animations.get(animIndex);
+		BufferedImage image = this.getImage();
+		if (image == null) return;
 		// Gets the position from the animation
 		Rectangle pos = this.getBounds(box);
 		pos.translate((int) -c.getX(), (int) -c.getY());
-		// Set up the affine transform
-		AffineTransform at = new AffineTransform();
-		at.translate(pos.getCenterX(), pos.getCenterY());
-		double rot = Math.toRadians(animations.get(animIndex).getRotation());
+		double rot = Math.toRadians(a.getRotation());
 		if (flip) rot *= -1;
-		at.rotate(rot);
-		g.setTransform(at);
-		// Draw the image
-		double x, y, w;
+		// Draw the image from the cache of transformed tiles
+		Rectangle place = this.getPlacement(image, pos, flip);
+		tileset.getSpriteCache().draw(g, a.getTextureX(), a.getTextureY(), pos.getCenterX(), pos.getCenterY(),
+				rot, place.x, place.y, place.width, place.height);
+	}
+
+	// Adds the current image to a snapshot, placed as drawImage would draw it and
+	// moving from where it was at the end of the last update
+	public void capture(FrameSnapshot s, Rectangle prevBox, Rectangle box, boolean flip) {
+		ErrorHandler.checkNull(s, "An Animator was given a null snapshot.");
+		// If we can't draw, return
+		if (tileset == null || animations.isEmpty()) return;
+		Animation a = animations.get(animIndex);
 		BufferedImage image = this.getImage();
-		Point centre = animations.get(animIndex).getCentre();
-		x = -pos.getWidth() / 2 - centre.getX();
-		y = -pos.getHeight() / 2 - centre.getY();
+		if (image == null) return;
+		// Gets the positions from the animation
+		Rectangle pos = this.getBounds(box);
+		Rectangle prevPos = this.getPreviousBounds(prevBox);
+		double rot = Math.toRadians(a.getRotation());
+		double prevRot = (prevIndex == animIndex) ? Math.toRadians(prevRotation) : rot;
+		if (flip) {
+			rot *= -1;
+			prevRot *= -1;
+		}
+		Rectangle place = this.getPlacement(image, pos, flip);
+		s.addSprite(tileset.getSpriteCache(), a.getTextureX(), a.getTextureY(),
+				prevPos.getCenterX(), prevPos.getCenterY(), prevRot,
+				pos.getCenterX(), pos.getCenterY(), rot, place.x, place.y, place.width, place.height);
+	}
+
+	// Returns where the image is drawn about the centre of its bounds, with a negative width if flipped
+	private Rectangle getPlacement(BufferedImage image, Rectangle pos, boolean flip) {
+		double x, y, w;
+		Animation a = animations.get(animIndex);
+		x = -pos.getWidth() / 2 - a.getCentreX();
+		y = -pos.getHeight() / 2 - a.getCentreY();
 		w = (pos.getWidth() == 0 || pos.getHeight() == 0) ? image.getWidth() : pos.getWidth();
 		if (flip) {
 			x += w;
 			w *= -1;
 		}
-		if (Display.area(pos) == 0) {
-			g.drawImage(image, (int) x, (int) y, (int) w,
-					image.getHeight(), null);
-		} else {
-			g.drawImage(image, (int) x, (int) y,
-					(int) w, (int) pos.getHeight(), null);
-		}
-		g.setTransform(new AffineTransform());
-	}
-
-	// Adds an animation
-	public int addAnimation(String path) {
-		ArrayList<String> content = ResourceManager.readFile(path);
-		// Getting textures
-		if (content.size() < 1) return -1;
-		String[] data, parts;
-		parts = content.get(0).split(" ");
-		Point[] textures = new Point[parts.length];
-		for (int i = 0; i < parts.length; i++) {
-			data = parts[i].split("_");
-			if (data.length != 2) return -1;
-			textures[i] = new Point(Integer.valueOf(data[0]),
-					Integer.valueOf(data[1]));
-		}
-		// Getting durations
-		if (content.size() < 2)
-			return addAnimation(textures, null, null, null, null, null, null, null);
-		parts = content.get(1).split(" ");
-		if (parts.length < textures.length) return -1;
-		int[] durations = new int[textures.length];
-		for (int i = 0; i < textures.length; i++) {
-			durations[i] = Integer.valueOf(parts[i]);
-		}
-		// Getting (x, y, w, h)s
-		if (content.size() < 3) return addAnimation(textures, durations, null,
-				null, null, null, null, null);
-		parts = content.get(2).split(" ");
-		if (parts.length < textures.length) return -1;
-		TweenType tweenType;
-		AnimationTween[] x, y, w, h;
-		x = new AnimationTween[textures.length];
-		y = new AnimationTween[textures.length];
-		w = new AnimationTween[textures.length];
-		h = new AnimationTween[textures.length];
-		for (int i = 0; i < textures.length; i++) {
-			data = parts[i].split("_");
-			if (data.length != 9) return -1;
-			tweenType = TweenType.toTweenType(data[0]);
-			if (tweenType == null) return -1;
-			x[i] = new AnimationTween(Double.valueOf(data[1]),
-					Double.valueOf(data[2]), durations[i], tweenType);
-			y[i] = new AnimationTween(Double.valueOf(data[3]),
-					Double.valueOf(data[4]), durations[i], tweenType);
-			w[i] = new AnimationTween(Double.valueOf(data[5]),
-					Double.valueOf(data[6]), durations[i], tweenType);
-			h[i] = new AnimationTween(Double.valueOf(data[7]),
-					Double.valueOf(data[8]), durations[i], tweenType);
-		}
-		// Getting rotations
-		if (content.size() < 4)
-			return addAnimation(textures, durations, x, y, w, h, null, null);
-		parts = content.get(3).split(" ");
-		AnimationTween[] rotations = new AnimationTween[textures.length];
-		Point[] centres = new Point[textures.length];
-		for (int i = 0; i < textures.length; i++) {
-			data = parts[i].split("_");
-			if (data.length != 5) return -1;
-			tweenType = TweenType.toTweenType(data[0]);
-			if (tweenType == null) return -1;
-			rotations[i] = new AnimationTween(Double.valueOf(data[1]),
-					Double.valueOf(data[2]), durations[i], tweenType);
-			centres[i] = new Point(Integer.valueOf(data[3]), Integer.valueOf(data[4]));
-		}
-		// Return the animation
-		return addAnimation(textures, durations, x, y, w, h, rotations, centres);
+		int h = (Drawable.area(pos) == 0) ? image.getHeight() : (int) pos.getHeight();
+		return new Rectangle((int) x, (int) y, (int) w, h);
 	}
-	public int addAnimation(Point[] textures, int[] durations,
-			AnimationTween[] x, AnimationTween[] y, AnimationTween[] w,
-			AnimationTween[] h, AnimationTween[] rotations, Point[] centres) {
-		Animation anim = new Animation(textures, durations, x, y, w, h,
-				rotations, centres);
-		animations.add(anim);
-		return animations.indexOf(anim);
+
+	// Adds an animation, returning its id or -1 if there isn't one
+	public int addAnimation(AnimationDefinition definition) {
+		if (definition == null) return -1;
+		animations.add(new Animation(definition));
+		return animations.size() - 1;
 	}
 
 	// Returns the bounds of the animation
 	public Rectangle getBounds(Rectangle defBounds) {
-		int x = (int) (defBounds.getX() + animations.get(animIndex).getX());
-		int y = (int) (defBounds.getY() + animations.get(animIndex).getY());
-		int w = (int) animations.get(animIndex).getWidth();
-		int h = (int) animations.get(animIndex).getHeight();
+		Animation a = animations.get(animIndex);
+		return getBounds(defBounds, a.getX(), a.getY(), a.getWidth(), a.getHeight());
+	}
+	// Returns the bounds at the end of the last update, or null if there aren't any
+	public Rectangle getPreviousBounds(Rectangle defBounds) {
+		if (animations.isEmpty()) return null;
+		// If the animation has changed since, there's nothing to move from
+		if (prevIndex != animIndex) return getBounds(defBounds);
+		return getBounds(defBounds, prevX, prevY, prevW, prevH);
+	}
+	private Rectangle getBounds(Rectangle defBounds, double ax, double ay, double aw, double ah) {
+		int x = (int) (defBounds.getX() + ax);
+		int y = (int) (defBounds.getY() + ay);
+		int w = (int) aw;
+		int h = (int) ah;
 		if (w == 0) w = (int) defBounds.getWidth();
 		if (h == 0) h = (int) defBounds.getHeight();
 		return new Rectangle(x, y, w, h);
@@ -199,18 +170,12 @@ public class Animator {
 
 	// Gets a specific image
 	public BufferedImage getImage(int x, int y) {
-		return ResourceManager.getTile(tileset, null, x, y,
-				(int) tileSize.getWidth(), (int) tileSize.getHeight());
+		return tileset.getTile(x, y);
 	}
 
 	// Sets the tileset
-	public void setTiles(BufferedImage tileset) {
+	public void setTiles(TileAtlas tileset) {
 		this.tileset = tileset;
 	}
 
-	// Sets the tile dimensions
-	public void setTileDimensions(Dimension tileSize) {
-		this.tileSize = tileSize;
-	}
-
 }
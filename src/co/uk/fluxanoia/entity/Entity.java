@@ -4,9 +4,10 @@ import java.awt.Graphics2D;
 import java.awt.Rectangle;
 
 import co.uk.fluxanoia.control.Controller;
-import co.uk.fluxanoia.graphics.Display;
 import co.uk.fluxanoia.graphics.Drawable;
 import co.uk.fluxanoia.main.ErrorHandler;
+import co.uk.fluxanoia.main.GameContext;
+import co.uk.fluxanoia.map.FrameSnapshot;
 import co.uk.fluxanoia.map.Terrain;
 
 // The Entity class, gives a basis for all entities
@@ -32,14 +33,14 @@ public abstract class Entity extends Drawable {
 			return null;
 		}
 		// Returns the entity associated with the index
-		public static Entity getEntity(String id, Display display, Terrain terrain, int x, int y) {
-			return getEntity(getIndex(id), display, terrain, x, y);
+		public static Entity getEntity(String id, GameContext context, Terrain terrain, int x, int y) {
+			return getEntity(getIndex(id), context, terrain, x, y);
 		}
-		public static Entity getEntity(EntityIndex ei, Display display, Terrain terrain, int x, int y) {
+		public static Entity getEntity(EntityIndex ei, GameContext context, Terrain terrain, int x, int y) {
 			ErrorHandler.checkNull(ei, "The EntityIndex enum was given a null entity index.");
 			switch (ei) {
 			case PROTAGONIST:
-				return new Protagonist(display, terrain, x, y);
+				return new Protagonist(context, terrain, x, y);
 			}
 			return null;
 		}
@@ -47,8 +48,8 @@ public abstract class Entity extends Drawable {
 	// The entity index of the entity
 	private EntityIndex entityIndex;
 	
-	// The display for the game
-	private Display display;
+	// The context of the game
+	private GameContext context;
 	// The terrain of the game
 	private Terrain terrain;
 	// The animator of the entity
@@ -56,28 +57,29 @@ public abstract class Entity extends Drawable {
 	// The controller of the entity
 	private Controller controller;
 	
-	// The x and y positions of the entity
+	// The x and y positions of the entity, and at the end of the last update
 	protected double x, y;
+	protected double prev_x, prev_y;
 	protected double w, h;
 	// The velocities of the entity
 	protected double x_vel, y_vel;
 	
 	// Constructs an entity
-	public Entity(EntityIndex entityIndex, Display display, Terrain terrain, int x, int y, int w, int h) {
+	public Entity(EntityIndex entityIndex, GameContext context, Terrain terrain, int x, int y, int w, int h) {
 		// Check for null inputs
 		ErrorHandler.checkNull(entityIndex, "An Entity was given a null EntityIndex.");
-		ErrorHandler.checkNull(display, "An Entity was given a null Display.");
+		ErrorHandler.checkNull(context, "An Entity was given a null GameContext.");
 		ErrorHandler.checkNull(terrain, "An Entity was given a null Terrain");
 		// Initialise values
 		this.x_vel = this.y_vel = 0;
 		// Assign values
 		this.entityIndex = entityIndex;
-		this.display = display;
+		this.context = context;
 		this.terrain = terrain;
 		this.animator = new Animator();
 		this.controller = null;
-		this.x = x;
-		this.y = y;
+		this.x = this.prev_x = x;
+		this.y = this.prev_y = y;
 		this.w = w;
 		this.h = h;
 	}
@@ -86,9 +88,14 @@ public abstract class Entity extends Drawable {
 	public abstract void update();
 	// Draws the entity
 	public abstract void draw(Graphics2D g);
+	// Adds what the entity looks like now to a snapshot
+	public abstract void capture(FrameSnapshot s);
 
 	// Updates the tween and returns whether they have moved or not
 	public boolean updateSuper() {
+		// Keep where the entity was to draw between updates
+		this.prev_x = x;
+		this.prev_y = y;
 		boolean moved = false;
 		moved |= animator.update();
 		moved |= animator.dropMoved();
@@ -98,8 +105,11 @@ public abstract class Entity extends Drawable {
 	
 	// Updates the clip bounds of the entity
 	public void updateClip() {
+		// Cover everywhere the entity is drawn between the last update and this one
 		Rectangle b = animator.getBounds(this.getHitbox());
 		if (b == null) b = this.getHitbox();
+		Rectangle p = animator.getPreviousBounds(this.getPreviousHitbox());
+		if (p != null) b = b.union(p);
 		b = new Rectangle((int) b.getX() - 5,
 				(int) b.getY() - 5,
 				(int) b.getWidth() + 10,
@@ -112,6 +122,9 @@ public abstract class Entity extends Drawable {
 	public Rectangle getHitbox() {
 		return getSpecificHitbox(x, y);
 	}
+	public Rectangle getPreviousHitbox() {
+		return getSpecificHitbox(prev_x, prev_y);
+	}
 	public Rectangle getSpecificHitbox(double x, double y) {
 		return new Rectangle(
 				(int) (x - w / 2),
@@ -130,8 +143,8 @@ public abstract class Entity extends Drawable {
 	public EntityIndex getEntityIndex() { return entityIndex; }
 	// Returns the controller
 	public Controller getController() { return controller; }
-	// Returns the display
-	protected Display getDisplay() { return display; }
+	// Returns the context
+	protected GameContext getContext() { return context; }
 	// Returns the terrain
 	protected Terrain getTerrain() { return terrain; }
 	// Returns the animator
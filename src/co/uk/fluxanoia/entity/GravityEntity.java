@@ -3,15 +3,15 @@ package co.uk.fluxanoia.entity;
 import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
-import java.util.ArrayList;
 
 import co.uk.fluxanoia.control.Controller.InputType;
-import co.uk.fluxanoia.graphics.Display;
 import co.uk.fluxanoia.graphics.Drawable;
 import co.uk.fluxanoia.main.ErrorHandler;
+import co.uk.fluxanoia.main.GameContext;
+import co.uk.fluxanoia.main.Profiler;
+import co.uk.fluxanoia.main.Profiler.Phase;
 import co.uk.fluxanoia.map.Terrain;
-import co.uk.fluxanoia.map.Tile;
-import co.uk.fluxanoia.map.Tile.TileType;
+import co.uk.fluxanoia.map.TileMap;
 
 // The GravityEntity class, adds gravity based collision to the entity
 public abstract class GravityEntity extends Entity {
@@ -46,10 +46,10 @@ public abstract class GravityEntity extends Entity {
 	private int jumps;
 
 	// Constructs a GravityEntity
-	public GravityEntity(EntityIndex ei, Display display, Terrain terrain, int x, int y, int w,
+	public GravityEntity(EntityIndex ei, GameContext context, Terrain terrain, int x, int y, int w,
 			int h, double x_rev, double acc_x, double acc_y, double ter_r, double ter_d, double ter_f,
 			double j_pow, double fri_x, int jumps) {
-		super(ei, display, terrain, x, y, w, h);
+		super(ei, context, terrain, x, y, w, h);
 		// Assign values
 		X_REVERSE_MOD = x_rev;
 		TERMINAL_RUN = ter_r;
@@ -75,9 +75,9 @@ public abstract class GravityEntity extends Entity {
 	public abstract void draw(Graphics2D g);
 
 	// Updates the collision of the gravity entity
-	public boolean updateCollision(ArrayList<Tile> tiles) {
-		ErrorHandler.checkNull((Object) tiles, "A GravityEntity was given a null array list of tiles.");
-		ErrorHandler.checkNull(tiles, "A GravityEntity was given a null tile.");
+	public boolean updateCollision(TileMap tiles) {
+		ErrorHandler.checkNull(tiles, "A GravityEntity was given a null tile map.");
+		long time = Profiler.start();
 		
 		// VELOCITIES
 		
@@ -143,32 +143,26 @@ public abstract class GravityEntity extends Entity {
 		min_y = (int) Math.floor(encap.getY() / (double) Terrain.GRID_SIZE); 
 		max_x = (int) Math.ceil(encap.getMaxX() / (double) Terrain.GRID_SIZE); 
 		max_y = (int) Math.ceil(encap.getMaxY() / (double) Terrain.GRID_SIZE);
-		// Get the tiles in the vicinity
-		ArrayList<Tile> subTiles = new ArrayList<>();
-		for (Tile t : tiles) {
-			if (t.getType() == TileType.NO_COLLIDE) continue;
-			if (t.getCellX() < min_x || t.getCellX() > max_x) continue;
-			if (t.getCellY() < min_y || t.getCellY() > max_y) continue;
-			subTiles.add(t);
-		}
 		// Get the points surronding the next hitbox
 		Point[] top = getTopPoints(next_box);
 		Point[] bottom = getBottomPoints(next_box);
 		Point[] left = getLeftPoints(next_box);
 		Point[] right = getRightPoints(next_box);
-		// Iterate through the tiles
-		Rectangle tileBounds;
+		// Iterate through the collidable tiles in the vicinity, working out their bounds from
+		// their cell rather than looking up each tile
+		Rectangle tileBounds = new Rectangle(0, 0, Terrain.GRID_SIZE, Terrain.GRID_SIZE);
 		boolean hasGrounded = false;
-		for (Tile t : subTiles) {
+		for (int cell_y = min_y; cell_y <= max_y; cell_y++) for (int cell_x = min_x; cell_x <= max_x; cell_x++) {
+			if (!tiles.isCollidable(cell_x, cell_y)) continue;
 			// If the tile intersects with the box
-			tileBounds = t.getBounds();
+			tileBounds.setLocation(cell_x * Terrain.GRID_SIZE, cell_y * Terrain.GRID_SIZE);
 			if (next_box.intersects(tileBounds)) {
 				// If moving horizontally...
 				if (x_vel != 0) {
 					// Check if moving right and there's a point collision...
 					if (containsAny(tileBounds, right) && x_vel > 0) {
 						// If there's no tile where we are about to move...
-						if (!isTile(subTiles, t.getCellX() - 1, t.getCellY())) {
+						if (!isTile(tiles, cell_x - 1, cell_y, min_x, min_y, max_x, max_y)) {
 							new_x = tileBounds.getX() - Math.floor(next_box.getBounds().getWidth() / 2);
 							x_vel = 0;
 						}
@@ -176,7 +170,7 @@ public abstract class GravityEntity extends Entity {
 					// Check if moving left and there's a point collision...
 					if (containsAny(tileBounds, left) && x_vel < 0) {
 						// If there's no tile where we are about to move...
-						if (!isTile(subTiles, t.getCellX() + 1, t.getCellY())) {
+						if (!isTile(tiles, cell_x + 1, cell_y, min_x, min_y, max_x, max_y)) {
 							new_x = tileBounds.getMaxX() + Math.floor(next_box.getBounds().getWidth() / 2);
 							x_vel = 0;
 						}
@@ -187,7 +181,7 @@ public abstract class GravityEntity extends Entity {
 					// Check if moving down and there's a point collision...
 					if (containsAny(tileBounds, bottom) && y_vel > 0) {
 						// If there's no tile where we are about to move...
-						if (!isTile(subTiles, t.getCellX(), t.getCellY() - 1)) {
+						if (!isTile(tiles, cell_x, cell_y - 1, min_x, min_y, max_x, max_y)) {
 							new_y = tileBounds.getY() + 1 - (next_box.getBounds().getHeight() / 2);
 							y_vel = 0;
 							hasGrounded = true;
@@ -197,7 +191,7 @@ public abstract class GravityEntity extends Entity {
 					// Check if moving up and there's a point collision...
 					if (containsAny(tileBounds, top) && y_vel < 0) {
 						// If there's no tile where we are about to move...
-						if (!isTile(subTiles, t.getCellX(), t.getCellY() + 1)) {
+						if (!isTile(tiles, cell_x, cell_y + 1, min_x, min_y, max_x, max_y)) {
 							new_y = tileBounds.getMaxY() + Math.floor(next_box.getBounds().getHeight() / 2);
 							y_vel = 0;
 						}
@@ -211,13 +205,14 @@ public abstract class GravityEntity extends Entity {
 		boolean moved = (x != new_x || y != new_y);
 		x = new_x;
 		y = new_y;
+		Profiler.record(Phase.COLLISION, time);
 		return moved;
 	}
 	
-	// Returns whether there's a tile at the position
-	private boolean isTile(ArrayList<Tile> tiles, int x, int y) {
-		for (Tile t : tiles) if (x == t.getCellX() && y == t.getCellY()) return true;
-		return false;
+	// Returns whether there's a collidable tile at the position, within the vicinity
+	private boolean isTile(TileMap tiles, int x, int y, int min_x, int min_y, int max_x, int max_y) {
+		if (x < min_x || x > max_x || y < min_y || y > max_y) return false;
+		return tiles.isCollidable(x, y);
 	}
 
 	// Returns whether any of the points are in the rectangle
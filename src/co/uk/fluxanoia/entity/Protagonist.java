@@ -1,11 +1,12 @@
 package co.uk.fluxanoia.entity;
 
 import java.awt.Color;
-import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
 
-import co.uk.fluxanoia.graphics.Display;
+import co.uk.fluxanoia.main.GameContext;
+import co.uk.fluxanoia.main.ResourceManager;
+import co.uk.fluxanoia.map.FrameSnapshot;
 import co.uk.fluxanoia.map.Terrain;
 
 // The Player class, the protagonist
@@ -21,19 +22,18 @@ public class Protagonist extends GravityEntity {
 	private boolean flip;
 	
 	// Constructs a player
-	public Protagonist(Display display, Terrain terrain, int x, int y) {
-		super(EntityIndex.PROTAGONIST, display, terrain, x, y, 18, 34, 1.75, 0.4, 0.35, 7, 5, 9, 7, 0.8, 2);
-		this.getAnimator().setTiles(this.getDisplay().getResourceManager()
-				.getImage("res\\sprites\\protagonist.png"));
-		this.getAnimator().setTileDimensions(new Dimension(40, 40));
-		// Set up the animations
-		anim_stand = this.getAnimator().addAnimation("res\\anims\\protagonist\\stand.anim");
-		anim_run = this.getAnimator().addAnimation("res\\anims\\protagonist\\run.anim");
-		anim_stop = this.getAnimator().addAnimation("res\\anims\\protagonist\\stop.anim");
-		anim_jump_start = this.getAnimator().addAnimation("res\\anims\\protagonist\\jump_start.anim");
-		anim_jump_air = this.getAnimator().addAnimation("res\\anims\\protagonist\\jump_air.anim");
-		anim_jump_end = this.getAnimator().addAnimation("res\\anims\\protagonist\\jump_end.anim");
-		anim_teeter = this.getAnimator().addAnimation("res\\anims\\protagonist\\teeter.anim");
+	public Protagonist(GameContext context, Terrain terrain, int x, int y) {
+		super(EntityIndex.PROTAGONIST, context, terrain, x, y, 18, 34, 1.75, 0.4, 0.35, 7, 5, 9, 7, 0.8, 2);
+		ResourceManager resources = this.getContext().getResourceManager();
+		this.getAnimator().setTiles(resources.getAtlas("res\\sprites\\protagonist.png", 40, 40));
+		// Set up the animations, which are only read the first time
+		anim_stand = this.getAnimator().addAnimation(resources.getAnimation("res\\anims\\protagonist\\stand.anim"));
+		anim_run = this.getAnimator().addAnimation(resources.getAnimation("res\\anims\\protagonist\\run.anim"));
+		anim_stop = this.getAnimator().addAnimation(resources.getAnimation("res\\anims\\protagonist\\stop.anim"));
+		anim_jump_start = this.getAnimator().addAnimation(resources.getAnimation("res\\anims\\protagonist\\jump_start.anim"));
+		anim_jump_air = this.getAnimator().addAnimation(resources.getAnimation("res\\anims\\protagonist\\jump_air.anim"));
+		anim_jump_end = this.getAnimator().addAnimation(resources.getAnimation("res\\anims\\protagonist\\jump_end.anim"));
+		anim_teeter = this.getAnimator().addAnimation(resources.getAnimation("res\\anims\\protagonist\\teeter.anim"));
 		// Start the base animation
 		this.getAnimator().setAnimation(anim_jump_end, -1);
 		// Initialise values
@@ -81,6 +81,11 @@ public class Protagonist extends GravityEntity {
 		if (updateClip) updateClip();
 	}
 
+	// Adds the player to a snapshot
+	public void capture(FrameSnapshot s) {
+		this.getAnimator().capture(s, this.getPreviousHitbox(), this.getHitbox(), this.flip);
+	}
+
 	// Draws the player
 	public void draw(Graphics2D g) {
 		this.getAnimator().drawImage(g, this.getTerrain().getCamera(), this.getHitbox(), this.flip);
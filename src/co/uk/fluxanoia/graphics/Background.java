@@ -16,6 +16,8 @@ public class Background extends Drawable {
 	private BufferedImage image;
 	// The values for the scale and translation for the background
 	private Tween scale;
+	// The scale the background is drawn with, copied by capture
+	private double drawnScale;
 	
 	// Constructs the background with varying degrees of specificity
 	public Background(BufferedImage image) {
@@ -29,6 +31,7 @@ public class Background extends Drawable {
 		// Initialise values
 		this.image = image;
 		this.scale = new Tween(scale);
+		this.drawnScale = scale;
 	}
 	
 	// Updates the background
@@ -37,14 +40,19 @@ public class Background extends Drawable {
 		if (scale.dropMoved()) this.pushClipBounds(getClipBounds());
 	}
 	
-	// Draws the background
+	// Copies the scale the background is drawn with
+	public void capture() {
+		this.drawnScale = scale.value();
+	}
+	
+	// Draws the background at the scale last captured
 	public void draw(Graphics2D g) {
 		g.drawImage(
 				image, 
-				(int) getX(), 
-				(int) getY(), 
-				(int) (image.getWidth() * scale.value()),
-				(int) (image.getHeight() * scale.value()), 
+				(int) getX(drawnScale), 
+				(int) getY(drawnScale), 
+				(int) (image.getWidth() * drawnScale),
+				(int) (image.getHeight() * drawnScale), 
 				null
 		);
 	}
@@ -52,8 +60,8 @@ public class Background extends Drawable {
 	// Gets the clip bounds of the background
 	private Rectangle getClipBounds() {
 		return new Rectangle(
-				(int) getX(), 
-				(int) getY(), 
+				(int) getX(scale.value()), 
+				(int) getY(scale.value()), 
 				(int) (image.getWidth() * scale.value()),
 				(int) (image.getHeight() * scale.value())
 		);
@@ -81,14 +89,14 @@ public class Background extends Drawable {
 		return scale.hasArrived();
 	}
 
-	// Returns the x value of the background
-	private double getX() {
-		return (Main.DRAW_WIDTH - image.getWidth() * scale.value()) / 2; 
+	// Returns the x value of the background at a scale
+	private double getX(double scale) {
+		return (Main.DRAW_WIDTH - image.getWidth() * scale) / 2; 
 	}
 	
-	// Returns the y value of the background
-	private double getY() {
-		return (Main.DRAW_HEIGHT - image.getHeight() * scale.value()) / 2; 
+	// Returns the y value of the background at a scale
+	private double getY(double scale) {
+		return (Main.DRAW_HEIGHT - image.getHeight() * scale) / 2; 
 	}
 	
 }
@@ -0,0 +1,174 @@
+package co.uk.fluxanoia.graphics;
+
+import java.awt.Rectangle;
+
+import co.uk.fluxanoia.main.ErrorHandler;
+
+// The DirtyRegion class, a small set of disjoint rectangles that need redrawing
+public class DirtyRegion {
+
+	// The most rectangles kept before the closest are forced together
+	public static final int MAX_RECTS = 8;
+	// The cost of drawing an extra rectangle, in pixels
+	private static final long RECT_COST = 64 * 64;
+
+	// The corners of the rectangles, left and top inclusive, right and bottom exclusive
+	private int[] x1, y1, x2, y2;
+	// The amount of rectangles held
+	private int size;
+
+	// Constructs an empty DirtyRegion
+	public DirtyRegion() {
+		this.x1 = new int[MAX_RECTS];
+		this.y1 = new int[MAX_RECTS];
+		this.x2 = new int[MAX_RECTS];
+		this.y2 = new int[MAX_RECTS];
+		this.size = 0;
+	}
+
+	// Adds an area to the region, merging it with others where that's cheaper to draw
+	public void add(Rectangle r) {
+		ErrorHandler.checkNull(r, "A DirtyRegion was given a null rectangle.");
+		add(r.x, r.y, r.width, r.height);
+	}
+	public void add(DirtyRegion r) {
+		ErrorHandler.checkNull(r, "A DirtyRegion was given a null region.");
+		for (int i = 0; i < r.size; i++) addCorners(r.x1[i], r.y1[i], r.x2[i], r.y2[i]);
+	}
+	public void add(int x, int y, int width, int height) {
+		if (width <= 0 || height <= 0) return;
+		addCorners(x, y, x + width, y + height);
+	}
+
+	// Adds the rectangle with the given corners
+	private void addCorners(int ax1, int ay1, int ax2, int ay2) {
+		int best;
+		long cost, bestCost;
+		boolean merge;
+		while (true) {
+			// Find the first rectangle that overlaps or is cheaper to draw together,
+			// keeping track of the cheapest in case there's no room left
+			best = -1;
+			bestCost = Long.MAX_VALUE;
+			merge = false;
+			for (int i = 0; i < size; i++) {
+				cost = mergeCost(i, ax1, ay1, ax2, ay2);
+				if (cost <= 0 || overlaps(i, ax1, ay1, ax2, ay2)) {
+					best = i;
+					merge = true;
+					break;
+				}
+				if (cost < bestCost) {
+					best = i;
+					bestCost = cost;
+				}
+			}
+			// If there's room and nothing worth merging, keep it separate
+			if (!merge && size < MAX_RECTS) break;
+			// Otherwise take the merged rectangle out and try adding it again
+			ax1 = Math.min(ax1, x1[best]);
+			ay1 = Math.min(ay1, y1[best]);
+			ax2 = Math.max(ax2, x2[best]);
+			ay2 = Math.max(ay2, y2[best]);
+			remove(best);
+		}
+		x1[size] = ax1;
+		y1[size] = ay1;
+		x2[size] = ax2;
+		y2[size] = ay2;
+		size++;
+	}
+
+	// Returns how many more pixels merging would draw, less the cost of a rectangle
+	private long mergeCost(int i, int ax1, int ay1, int ax2, int ay2) {
+		long union = (long) (Math.max(ax2, x2[i]) - Math.min(ax1, x1[i]))
+				* (Math.max(ay2, y2[i]) - Math.min(ay1, y1[i]));
+		long apart = (long) (ax2 - ax1) * (ay2 - ay1)
+				+ (long) (x2[i] - x1[i]) * (y2[i] - y1[i]);
+		return union - apart - RECT_COST;
+	}
+
+	// Returns whether a rectangle overlaps the given corners
+	private boolean overlaps(int i, int ax1, int ay1, int ax2, int ay2) {
+		return ax1 < x2[i] && x1[i] < ax2 && ay1 < y2[i] && y1[i] < ay2;
+	}
+
+	// Removes a rectangle by moving the last one into its place
+	private void remove(int i) {
+		size--;
+		x1[i] = x1[size];
+		y1[i] = y1[size];
+		x2[i] = x2[size];
+		y2[i] = y2[size];
+	}
+
+	// Replaces the region with a copy of another
+	public void set(DirtyRegion r) {
+		ErrorHandler.checkNull(r, "A DirtyRegion was given a null region.");
+		if (r == this) return;
+		System.arraycopy(r.x1, 0, x1, 0, r.size);
+		System.arraycopy(r.y1, 0, y1, 0, r.size);
+		System.arraycopy(r.x2, 0, x2, 0, r.size);
+		System.arraycopy(r.y2, 0, y2, 0, r.size);
+		size = r.size;
+	}
+
+	// Empties the region
+	public void clear() {
+		size = 0;
+	}
+
+	// Returns whether any of the region overlaps the rectangle
+	public boolean intersects(Rectangle r) {
+		ErrorHandler.checkNull(r, "A DirtyRegion was given a null rectangle.");
+		if (r.width <= 0 || r.height <= 0) return false;
+		for (int i = 0; i < size; i++) {
+			if (overlaps(i, r.x, r.y, r.x + r.width, r.y + r.height)) return true;
+		}
+		return false;
+	}
+
+	// Returns the rectangle containing the whole region
+	public Rectangle getBounds() {
+		if (size == 0) return new Rectangle(0, 0, 0, 0);
+		int bx1 = x1[0], by1 = y1[0], bx2 = x2[0], by2 = y2[0];
+		for (int i = 1; i < size; i++) {
+			bx1 = Math.min(bx1, x1[i]);
+			by1 = Math.min(by1, y1[i]);
+			bx2 = Math.max(bx2, x2[i]);
+			by2 = Math.max(by2, y2[i]);
+		}
+		return new Rectangle(bx1, by1, bx2 - bx1, by2 - by1);
+	}
+
+	// Returns the total area of the region
+	public long getArea() {
+		long area = 0;
+		for (int i = 0; i < size; i++) area += (long) (x2[i] - x1[i]) * (y2[i] - y1[i]);
+		return area;
+	}
+
+	// Returns whether the region is empty
+	public boolean isEmpty() { return size == 0; }
+	// Returns the amount of rectangles
+	public int size() { return size; }
+
+	// Returns the position and size of a rectangle
+	public int getX(int i) {
+		ErrorHandler.checkIndex(i, size, "A DirtyRegion was given an out of bounds index.");
+		return x1[i];
+	}
+	public int getY(int i) {
+		ErrorHandler.checkIndex(i, size, "A DirtyRegion was given an out of bounds index.");
+		return y1[i];
+	}
+	public int getWidth(int i) {
+		ErrorHandler.checkIndex(i, size, "A DirtyRegion was given an out of bounds index.");
+		return x2[i] - x1[i];
+	}
+	public int getHeight(int i) {
+		ErrorHandler.checkIndex(i, size, "A DirtyRegion was given an out of bounds index.");
+		return y2[i] - y1[i];
+	}
+
+}
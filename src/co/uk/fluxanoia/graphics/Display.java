@@ -1,31 +1,51 @@
 package co.uk.fluxanoia.graphics;
 
-import java.awt.Color;
+import java.awt.AWTException;
+import java.awt.BufferCapabilities;
+import java.awt.BufferCapabilities.FlipContents;
+import java.awt.Canvas;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.Rectangle;
+import java.awt.ImageCapabilities;
 import java.awt.RenderingHints;
 import java.awt.Toolkit;
+import java.awt.event.KeyEvent;
 import java.awt.event.WindowEvent;
-import java.awt.image.BufferedImage;
+import java.awt.image.BufferStrategy;
+import java.awt.image.VolatileImage;
 
 import javax.swing.JFrame;
-import javax.swing.JPanel;
 
 import co.uk.fluxanoia.main.AudioManager;
 import co.uk.fluxanoia.main.ErrorHandler;
+import co.uk.fluxanoia.main.GameContext;
 import co.uk.fluxanoia.main.GameMode;
 import co.uk.fluxanoia.main.GameMode.Mode;
 import co.uk.fluxanoia.main.Listener;
 import co.uk.fluxanoia.main.Main;
+import co.uk.fluxanoia.main.MediaAudioManager;
+import co.uk.fluxanoia.main.Profiler;
+import co.uk.fluxanoia.main.Profiler.Phase;
 import co.uk.fluxanoia.main.ResourceManager;
 
-// The display component, handles the panel (extended) and drawing
-public class Display extends JPanel {
+// The display component, handles the canvas (extended) and drawing
+public class Display extends Canvas implements GameContext {
 	
+	private static final long serialVersionUID = 1L;
 	// The wait between initialisation and mode selection
 	private static final long MODE_WAIT = 2000;
+	// The amount of buffers used to show frames
+	private static final int BUFFERS = 2;
+	// The longest the render thread waits for a change before checking again
+	private static final long IDLE_WAIT = 100;
+	// The whole number the draw image is scaled by to fill the window, or 0 if there isn't one
+	private static final int SCALE = (Main.WINDOW_WIDTH % Main.DRAW_WIDTH == 0
+			&& Main.WINDOW_HEIGHT % Main.DRAW_HEIGHT == 0
+			&& Main.WINDOW_WIDTH / Main.DRAW_WIDTH == Main.WINDOW_HEIGHT / Main.DRAW_HEIGHT)
+			? Main.WINDOW_WIDTH / Main.DRAW_WIDTH : 0;
+	// The key that writes out the frame timings
+	private static final int PROFILE_KEY = KeyEvent.VK_F9;
 	
 	// The time when the display was initialised
 	private long init_time;
@@ -46,21 +66,56 @@ public class Display extends JPanel {
 	private GameMode mode;
 	// Whether the display is running or not
 	private boolean running;
-	// The drawing image
-	private BufferedImage drawImage;
+	// The drawing image, only touched by the render thread
+	private VolatileImage drawImage;
+	// The buffers the finished frame is shown through, only touched by the render thread
+	private BufferStrategy bufferStrategy;
+	// Whether the back buffer keeps its contents after being shown
+	private boolean buffersKept;
+	// The area of the draw image changed since it was last shown, and whether all of it has
+	private DirtyRegion presentRegion;
+	private boolean presentAll;
+	// The area of the draw image being drawn, only touched by the render thread
+	private DirtyRegion drawRegion;
+	// The areas drawn differently between updates in the frame being drawn and the one before,
+	// only touched by the render thread
+	private DirtyRegion blendRegion, lastBlendRegion;
+	// Whether the window has been uncovered and needs the frame shown again
+	private volatile boolean exposed;
+	// How far the frame being drawn is between updates, only touched by the render thread
+	private double interpolation;
+	// The time between updates
+	private final long updatePeriod;
+	// The time the last update was due, and that time as captured for the frame being drawn
+	private long updateTime, drawnUpdateTime;
+	// The lock held while the game state is updated or captured to be drawn
+	private final Object frameLock;
 	
-	// Constructs the Display object
-	public Display() {
+	// Constructs the Display object, updated once every given amount of nanoseconds
+	public Display(long updatePeriod) {
 		// Initialises the game panel
 		super();
+		// Check for invalid values
+		if (updatePeriod <= 0) throw new IllegalArgumentException("The Display was given a non-positive update period.");
 		// Assigns the values
+		this.updatePeriod = updatePeriod;
 		// Initialises the running value
 		this.running = true;
+		// Initialises the lock
+		this.frameLock = new Object();
+		// Initialises the area to show
+		this.presentRegion = new DirtyRegion();
+		this.presentAll = true;
+		this.drawRegion = new DirtyRegion();
+		this.blendRegion = new DirtyRegion();
+		this.lastBlendRegion = new DirtyRegion();
+		this.interpolation = 1;
+		this.updateTime = this.drawnUpdateTime = System.nanoTime();
 		// Initialises the ResourceManager
 		this.resourceManager = new ResourceManager();
 		// Initialises the AudioManager
-		this.audioManager = new AudioManager(resourceManager);
-		// Sets up the game panel
+		this.audioManager = new MediaAudioManager();
+		// Sets up the game canvas, which is drawn to by the render thread alone
 		Dimension window = new Dimension(Main.WINDOW_WIDTH, Main.WINDOW_HEIGHT);
 		this.setPreferredSize(window);
 		this.setVisible(true);
@@ -75,10 +130,12 @@ public class Display extends JPanel {
 		this.window.pack();
 		centreWindow(this.window);
 		this.window.setVisible(true);
+		this.createBuffers();
 		// Initialises the mode
 		this.mode = null;
-		// Adds the listener to the panel and window
+		// Adds the listener to the canvas and window
 		this.window.addKeyListener(this.listener);
+		this.addKeyListener(this.listener);
 		this.addMouseListener(this.listener);
 		this.addMouseMotionListener(this.listener);
 		this.addMouseWheelListener(this.listener);
@@ -87,10 +144,61 @@ public class Display extends JPanel {
 		// Sets the initialisation time
 		this.initialised = false;
 		this.init_time = System.currentTimeMillis();
+		this.requestFocus();
 	}
 	
-	// Updates the Display
-	public void update() {
+	// Creates the buffers the frames are shown through
+	private void createBuffers() {
+		// Ask for the back buffer to be kept after showing, falling back to whatever is available
+		try {
+			this.createBufferStrategy(BUFFERS, new BufferCapabilities(new ImageCapabilities(true),
+					new ImageCapabilities(true), FlipContents.COPIED));
+		} catch (AWTException e) {
+			this.createBufferStrategy(BUFFERS);
+		}
+		this.bufferStrategy = this.getBufferStrategy();
+		// Parts of the frame can only be shown if the rest is still in the back buffer
+		BufferCapabilities caps = this.bufferStrategy.getCapabilities();
+		this.buffersKept = !caps.isPageFlipping() || caps.getFlipContents() == FlipContents.COPIED;
+	}
+	
+	// Updates the Display for the step due at the given time, called on the update thread
+	public void update(long due) {
+		synchronized (frameLock) {
+			long time = Profiler.start();
+			try {
+				updateMode();
+				this.updateTime = due;
+			} finally {
+				Profiler.record(Phase.DISPLAY_UPDATE, time);
+				// Wake the render thread if it's waiting for a change
+				frameLock.notifyAll();
+			}
+		}
+	}
+	
+	// Returns whether there's anything new to show, called on the render thread; this includes frames
+	// further between updates while anything last drawn is still on its way to where the last update put it
+	public boolean isDirty() {
+		if (!blendRegion.isEmpty() && interpolation < 1) return true;
+		synchronized (frameLock) {
+			return exposed || !initialised || mode.isDirty();
+		}
+	}
+	
+	// Waits for the next update, or a short while if there isn't one
+	public void awaitChange() {
+		synchronized (frameLock) {
+			try {
+				frameLock.wait(IDLE_WAIT);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	// Updates the mode, or picks one if there isn't one yet
+	private void updateMode() {
 		if (!initialised) {
 			if (System.currentTimeMillis() - init_time >= MODE_WAIT) {
 				this.mode = Mode.getGameMode(GameMode.DEFAULT_MODE, this);
@@ -109,52 +217,172 @@ public class Display extends JPanel {
 		}
 		// Updates the audio manager
 		this.audioManager.update();
+		// Writes out the frame timings if asked, away from the update thread
+		if (this.listener.isKeyPressed(PROFILE_KEY)) Profiler.dumpLater();
 		// Updates the listener
 		this.listener.update();
 	}
 	
-	// Calls a draw
-	public void draw() {
-		this.repaint(0, 0, Main.WINDOW_WIDTH, Main.WINDOW_HEIGHT);
+	// Draws a frame blended between the last two updates by how long ago the last was due
+	// and shows it, called on the render thread
+	public void render() {
+		// If the window was uncovered, show all of the frame
+		if (exposed) {
+			exposed = false;
+			presentAll = true;
+		}
+		long time = Profiler.start();
+		try {
+			renderFrame();
+		} finally {
+			Profiler.record(Phase.DISPLAY_PAINT, time);
+		}
 	}
 	
-	// Draws the loading screen
-	public void drawLoading(Graphics2D g) {
-		// Draw the loading screen
-		if (loading_bg != null) loading_bg.draw(g);
+	// Draws the mode into the draw image and shows it
+	private void renderFrame() {
+		// Whether the whole image has to be drawn again
+		boolean full = false;
+		do {
+			// Create the draw image, or check it survived since the last frame
+			if (drawImage == null) {
+				drawImage = this.createVolatileImage(Main.DRAW_WIDTH, Main.DRAW_HEIGHT);
+				full = true;
+			} else {
+				switch (drawImage.validate(this.getGraphicsConfiguration())) {
+				case VolatileImage.IMAGE_INCOMPATIBLE:
+					drawImage = this.createVolatileImage(Main.DRAW_WIDTH, Main.DRAW_HEIGHT);
+					full = true;
+					break;
+				case VolatileImage.IMAGE_RESTORED:
+					full = true;
+					break;
+				}
+			}
+			drawFrame(full);
+			// If the contents were lost while drawing, draw everything again
+			full = true;
+		} while (drawImage.contentsLost());
+		// Show the frame
+		present();
 	}
 	
-	// Draws the components
-	public void paint(Graphics g1) {
-		// Call the super
-		super.paint(g1);
-		// Create the draw image
-		if (drawImage == null) {
-			drawImage = new BufferedImage(Main.DRAW_WIDTH, Main.DRAW_HEIGHT,
-					BufferedImage.TYPE_INT_ARGB);
+	// Draws the mode into the draw image
+	private void drawFrame(boolean full) {
+		GameMode drawn;
+		// Hold the update thread off only while the area to draw and what's drawn there are copied
+		synchronized (frameLock) {
+			drawn = initialised ? mode : null;
+			if (drawn != null) {
+				drawRegion.set(drawn.dropClipBounds());
+				drawn.capture();
+			}
+			drawnUpdateTime = updateTime;
+		}
+		// Blend by how far the time is through the step after the update captured
+		interpolation = (double) (System.nanoTime() - drawnUpdateTime) / updatePeriod;
+		interpolation = Math.max(0, Math.min(1, interpolation));
+		// Draw again wherever things are blended between updates, in this frame and the last
+		if (drawn != null) {
+			lastBlendRegion.set(blendRegion);
+			blendRegion.clear();
+			drawn.addBlendBounds(blendRegion);
+			drawRegion.add(blendRegion);
+			drawRegion.add(lastBlendRegion);
 		}
 		// Create a G2D object
-		Graphics2D g = (Graphics2D) drawImage.getGraphics();
+		Graphics2D g = drawImage.createGraphics();
 		// If there's a mode
-		if (initialised) {
-			// Set the clip bounds
-			g.setClip(mode.dropClipBounds());
-			// Draws the state manager
-			this.mode.draw(g);
+		if (drawn != null) {
+			if (full) {
+				// Draw everything if the image was lost
+				g.setClip(Drawable.drawBounds());
+				drawn.draw(g);
+				presentAll = true;
+			} else {
+				// Draw the state manager once for each damaged area
+				for (int i = 0; i < drawRegion.size(); i++) {
+					g.setClip(drawRegion.getX(i), drawRegion.getY(i), drawRegion.getWidth(i), drawRegion.getHeight(i));
+					drawn.draw(g);
+				}
+				presentRegion.add(drawRegion);
+			}
 		} else {
 			// Draw the loading screen
 			drawLoading(g);
+			presentAll = true;
 		}
 		// Dispose of the graphics instance
 		g.dispose();
-		// Set the antialias and interpolation options
-		((Graphics2D) g1).setRenderingHint(RenderingHints.KEY_INTERPOLATION,
-				RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
-		((Graphics2D) g1).setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-				RenderingHints.VALUE_ANTIALIAS_OFF);
-		// Print to the panel
-		((Graphics2D) g1).drawImage(drawImage, 0, 0,
-				Main.WINDOW_WIDTH, Main.WINDOW_HEIGHT, Color.BLACK, null);
+		// Record the time spent drawing each part over every area as one time for the frame
+		Profiler.endFrame();
+	}
+	
+	// Scales the changed parts of the draw image onto the canvas through the buffer strategy
+	private void present() {
+		boolean all = presentAll || !buffersKept;
+		boolean restored, lost;
+		do {
+			do {
+				Graphics2D g = (Graphics2D) bufferStrategy.getDrawGraphics();
+				g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+						RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+				if (all) {
+					g.drawImage(drawImage, 0, 0, Main.WINDOW_WIDTH, Main.WINDOW_HEIGHT, null);
+				} else {
+					for (int i = 0; i < presentRegion.size(); i++) {
+						presentArea(g, presentRegion.getX(i), presentRegion.getY(i),
+								presentRegion.getWidth(i), presentRegion.getHeight(i));
+					}
+				}
+				g.dispose();
+				// If the buffer was restored, it has to be drawn in full
+				restored = bufferStrategy.contentsRestored();
+				all |= restored;
+			} while (restored);
+			bufferStrategy.show();
+			lost = bufferStrategy.contentsLost();
+			all |= lost;
+		} while (lost);
+		Toolkit.getDefaultToolkit().sync();
+		presentRegion.clear();
+		presentAll = false;
+	}
+	
+	// Scales an area of the draw image onto the same area of the window
+	private void presentArea(Graphics2D g, int x, int y, int width, int height) {
+		// Keep the area within the draw image
+		int x2 = Math.min(x + width, Main.DRAW_WIDTH), y2 = Math.min(y + height, Main.DRAW_HEIGHT);
+		x = Math.max(x, 0);
+		y = Math.max(y, 0);
+		if (x >= x2 || y >= y2) return;
+		if (SCALE != 0) {
+			// Whole number scales map pixels exactly, so the area can be copied directly
+			g.drawImage(drawImage, x * SCALE, y * SCALE, x2 * SCALE, y2 * SCALE, x, y, x2, y2, null);
+		} else {
+			// Otherwise scale the whole image clipped to the area, so the edges match a full draw
+			int wx = x * Main.WINDOW_WIDTH / Main.DRAW_WIDTH;
+			int wy = y * Main.WINDOW_HEIGHT / Main.DRAW_HEIGHT;
+			int wx2 = (x2 * Main.WINDOW_WIDTH + Main.DRAW_WIDTH - 1) / Main.DRAW_WIDTH;
+			int wy2 = (y2 * Main.WINDOW_HEIGHT + Main.DRAW_HEIGHT - 1) / Main.DRAW_HEIGHT;
+			g.setClip(wx, wy, wx2 - wx, wy2 - wy);
+			g.drawImage(drawImage, 0, 0, Main.WINDOW_WIDTH, Main.WINDOW_HEIGHT, null);
+			g.setClip(null);
+		}
+	}
+	
+	// Draws the loading screen
+	public void drawLoading(Graphics2D g) {
+		// Draw the loading screen
+		if (loading_bg != null) loading_bg.draw(g);
+	}
+	
+	// Asks for the frame to be shown again when the window needs painting, called on the event thread
+	public void paint(Graphics g) {
+		exposed = true;
+	}
+	public void update(Graphics g) {
+		paint(g);
 	}
 	
 	// Returns the Listener
@@ -169,6 +397,11 @@ public class Display extends JPanel {
 	public ResourceManager getResourceManager() {
 		return resourceManager;
 	}
+
+	// Returns the interpolation of the frame being drawn
+	public double getInterpolation() {
+		return interpolation;
+	}
 	
 	// Returns whether the display is running or not
 	public boolean isRunning() {
@@ -186,14 +419,4 @@ public class Display extends JPanel {
 		frame.setLocation(x, y);
 	}
 	
-	// Returns the window bounds
-	public static Rectangle drawBounds() {
-		return new Rectangle(0, 0, Main.DRAW_WIDTH, Main.DRAW_HEIGHT);
-	}
-	
-	// Gets the area of a Rectangle
-	public static double area(Rectangle r) {
-		return r.getWidth() * r.getHeight();
-	}
-	
 }
@@ -5,62 +5,84 @@ import java.awt.Rectangle;
 import java.util.ArrayList;
 
 import co.uk.fluxanoia.main.ErrorHandler;
+import co.uk.fluxanoia.main.Main;
 
 // The abstract Drawable class, to allow classes
 // to be drawn by the Display
 public abstract class Drawable {
 
-	// The area that should be redrawn for the component and the last drawn
-	private Rectangle oldClipBounds, clipBounds;
+	// The area pushed most recently, the area that should be redrawn
+	// besides it and the area last handed out to be drawn
+	private DirtyRegion clipBounds, oldClipBounds, droppedClipBounds;
 	
 	// Constructs a Drawable
 	public Drawable() {
-		// Assigns values
-		this.setClipBounds(new Rectangle(0, 0, 0, 0));
+		// Initialises values
+		this.clipBounds = new DirtyRegion();
+		this.oldClipBounds = new DirtyRegion();
+		this.droppedClipBounds = new DirtyRegion();
 	}
 	
 	// For drawing the component
 	public abstract void draw(Graphics2D g);
 	
+	// Copies what the component is drawn from, called while the update thread is held off
+	// so that the drawing can be done after letting it go
+	public void capture() {}
+	
+	// Adds the areas drawn differently from one frame to the next until the next update,
+	// going by what was last captured
+	public void addBlendBounds(DirtyRegion r) {}
+	
 	// Updates the new clip bounds and pushes the old one
 	public void pushClipBounds(Rectangle clip) {
 		ErrorHandler.checkNull(clip, "A Drawable was given a null clip rectangle.");
-		if (Display.area(clipBounds) == 0) {
-			this.clipBounds = clip;
-		} else {
-			if (Display.area(oldClipBounds) == 0) {
-				this.oldClipBounds = this.clipBounds;
-			} else {
-				this.oldClipBounds = encapsulate(new Rectangle[] { oldClipBounds, clipBounds });
-			}
-			this.clipBounds = clip;
-		}
+		this.pushOldClipBounds();
+		this.clipBounds.add(clip);
+	}
+	public void pushClipBounds(DirtyRegion clip) {
+		ErrorHandler.checkNull(clip, "A Drawable was given a null clip region.");
+		this.pushOldClipBounds();
+		this.clipBounds.set(clip);
+	}
+	
+	// Moves the most recently pushed area in with the rest
+	private void pushOldClipBounds() {
+		this.oldClipBounds.add(this.clipBounds);
+		this.clipBounds.clear();
 	}
 	
 	// Sets the clip bounds to a single rectangle
 	public void setClipBounds(Rectangle clipBounds) {
 		ErrorHandler.checkNull(clipBounds, "A Drawable was given a null clip rectangle.");
-		this.clipBounds = clipBounds;
-		this.oldClipBounds = clipBounds;
+		this.clipBounds.clear();
+		this.clipBounds.add(clipBounds);
+		this.oldClipBounds.set(this.clipBounds);
 	}
 	
-	// Returns the current clip bounds
-	public Rectangle dropClipBounds() {
-		if (Display.area(clipBounds) == 0) {
-			Rectangle clip = this.oldClipBounds;
-			this.oldClipBounds = new Rectangle(0, 0, 0, 0);
-			return clip;
-		}
-		if (Display.area(oldClipBounds) == 0) {
-			Rectangle clip = this.clipBounds;
-			this.oldClipBounds = this.clipBounds;
-			this.clipBounds = new Rectangle(0, 0, 0, 0);
-			return clip;
-		}
-		Rectangle clip = encapsulate(new Rectangle[] { clipBounds, oldClipBounds });
-		this.oldClipBounds = this.clipBounds;
-		this.clipBounds = new Rectangle(0, 0, 0, 0);
-		return clip;
+	// Returns whether there's any area to redraw
+	public boolean hasClipBounds() {
+		return !this.clipBounds.isEmpty() || !this.oldClipBounds.isEmpty();
+	}
+	
+	// Returns the area to redraw, which stays valid until the next drop; the most
+	// recently pushed area is kept so it's redrawn again next time
+	public DirtyRegion dropClipBounds() {
+		this.droppedClipBounds.set(this.oldClipBounds);
+		this.droppedClipBounds.add(this.clipBounds);
+		this.oldClipBounds.set(this.clipBounds);
+		this.clipBounds.clear();
+		return this.droppedClipBounds;
+	}
+	
+	// Returns the draw image bounds
+	public static Rectangle drawBounds() {
+		return new Rectangle(0, 0, Main.DRAW_WIDTH, Main.DRAW_HEIGHT);
+	}
+	
+	// Gets the area of a Rectangle
+	public static double area(Rectangle r) {
+		return r.getWidth() * r.getHeight();
 	}
 	
 	// Returns the rectangle containing both the input rectangles
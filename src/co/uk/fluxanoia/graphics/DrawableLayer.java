@@ -1,7 +1,6 @@
 package co.uk.fluxanoia.graphics;
 
 import java.awt.Graphics2D;
-import java.awt.Rectangle;
 import java.util.ArrayList;
 
 import co.uk.fluxanoia.main.ErrorHandler;
@@ -17,6 +16,8 @@ public abstract class DrawableLayer extends Drawable {
 	private ArrayList<Drawable> bg_components;
 	private ArrayList<Drawable> md_components;
 	private ArrayList<Drawable> fg_components;
+	// The areas the components need redrawn, gathered each update
+	private DirtyRegion layerClipBounds;
 	
 	// Constructs the DrawableLayer
 	public DrawableLayer() {
@@ -26,6 +27,7 @@ public abstract class DrawableLayer extends Drawable {
 		this.bg_components = new ArrayList<Drawable>();
 		this.md_components = new ArrayList<Drawable>();
 		this.fg_components = new ArrayList<Drawable>();
+		this.layerClipBounds = new DirtyRegion();
 	}
 
 	// Draws the layer itself
@@ -33,27 +35,14 @@ public abstract class DrawableLayer extends Drawable {
 	
 	// Updates the drawable layer
 	public void updateLayer() {
-		// Create the list that will hold all of the clip bounds
-		ArrayList<Rectangle> bounds = new ArrayList<Rectangle>();
-		// Name a variable to temporarily hold the bounds
-		Rectangle r;
-		// Compile the lists into one ordered array
-		ArrayList<Drawable>[] arrs = new ArrayList[3];
-		arrs[0] = bg_components;
-		arrs[1] = md_components;
-		arrs[2] = fg_components;
-		// Iterate through all the components, taking the necessary bounds
-		for (int i = 0; i < 3; i++) for (Drawable d : arrs[i]) {
-			r = d.dropClipBounds();
-			// If the bounds are not empty
-			if (Display.area(r) == 0) continue;
-			bounds.add(r);
-		}
-		// Get the final bounds
-		r = encapsulate(bounds);
-		// Push the final bounds if they are not empty
-		if (Display.area(r) != 0) {
-			this.pushClipBounds(r);
+		// Gather the areas the components need redrawn
+		layerClipBounds.clear();
+		for (int i = 0; i < bg_components.size(); i++) layerClipBounds.add(bg_components.get(i).dropClipBounds());
+		for (int i = 0; i < md_components.size(); i++) layerClipBounds.add(md_components.get(i).dropClipBounds());
+		for (int i = 0; i < fg_components.size(); i++) layerClipBounds.add(fg_components.get(i).dropClipBounds());
+		// Push the gathered areas if they are not empty
+		if (!layerClipBounds.isEmpty()) {
+			this.pushClipBounds(layerClipBounds);
 		}
 	}
 	
@@ -76,6 +65,20 @@ public abstract class DrawableLayer extends Drawable {
 		}
 	}
 	
+	// Copies what the components are drawn from
+	public void capture() {
+		for (int i = 0; i < bg_components.size(); i++) bg_components.get(i).capture();
+		for (int i = 0; i < md_components.size(); i++) md_components.get(i).capture();
+		for (int i = 0; i < fg_components.size(); i++) fg_components.get(i).capture();
+	}
+	
+	// Adds the areas the components draw differently between updates
+	public void addBlendBounds(DirtyRegion r) {
+		for (int i = 0; i < bg_components.size(); i++) bg_components.get(i).addBlendBounds(r);
+		for (int i = 0; i < md_components.size(); i++) md_components.get(i).addBlendBounds(r);
+		for (int i = 0; i < fg_components.size(); i++) fg_components.get(i).addBlendBounds(r);
+	}
+	
 	// Draws the components of the layer
 	public void drawComponents(Graphics2D g) {
 		// Draw all the components in order
@@ -2,10 +2,18 @@ package co.uk.fluxanoia.graphics;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.TexturePaint;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import co.uk.fluxanoia.main.ErrorHandler;
 import co.uk.fluxanoia.main.Main;
+import co.uk.fluxanoia.main.Profiler;
+import co.uk.fluxanoia.main.Profiler.Phase;
 import co.uk.fluxanoia.util.Tween;
+import co.uk.fluxanoia.util.TweenEngine;
 import co.uk.fluxanoia.util.Tween.TweenType;
 
 // The GridBackground class, is a general, scaled, window-sized image
@@ -19,7 +27,11 @@ public class GridBackground extends Drawable {
     // The base opacity of the fore/background
     private final int FORE_OPACITY = 160;
     private final int BACK_OPACITY = 80;
+    // The most grid textures kept at once
+    private final int MAX_TEXTURES = 8;
 
+    // The engine moving the grid's tweens
+    private TweenEngine tweens;
     // The opacity of the grid
     private Tween opacity;
     // The colour components of the grid
@@ -34,37 +46,54 @@ public class GridBackground extends Drawable {
     private Tween fore_y_dir;
     private Tween back_x_dir;
     private Tween back_y_dir;
+    // The colour, opacities and pixel offsets the grid is drawn with
+    private int red, green, blue;
+    private int fore_alpha, back_alpha;
+    private int fore_x, fore_y, back_x, back_y;
+    // The fill colour
+    private Color fill;
+    // The colour, opacities, offsets and fill the grid is drawn with, copied by capture
+    private int drawn_red, drawn_green, drawn_blue;
+    private int drawn_fore_alpha, drawn_back_alpha;
+    private int drawn_fore_x, drawn_fore_y, drawn_back_x, drawn_back_y;
+    private Color drawn_fill;
+    // The textures of a single grid box's lines, keyed by their colour
+    private LinkedHashMap<Integer, BufferedImage> textures;
 
     // Constructs the grid
     public GridBackground(int r, int g, int b, double a) {
         // Construct the Drawable
         super();
         // Assigns values
-        this.r = new Tween(r);
-        this.g = new Tween(g);
-        this.b = new Tween(b);
+        this.tweens = new TweenEngine(8);
+        this.r = tweens.create(r);
+        this.g = tweens.create(g);
+        this.b = tweens.create(b);
         // Initialises the values
-        opacity = new Tween(a);
+        opacity = tweens.create(a);
         fore_x_shift = 0;
         fore_y_shift = 0;
         back_x_shift = 0;
         back_y_shift = 0;
-        fore_x_dir = new Tween(0);
-        fore_y_dir = new Tween(0);
-        back_x_dir = new Tween(0);
-        back_y_dir = new Tween(0);
+        fore_x_dir = tweens.create(0);
+        fore_y_dir = tweens.create(0);
+        back_x_dir = tweens.create(0);
+        back_y_dir = tweens.create(0);
+        textures = new LinkedHashMap<Integer, BufferedImage>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            protected boolean removeEldestEntry(Map.Entry<Integer, BufferedImage> eldest) {
+                return size() > MAX_TEXTURES;
+            }
+        };
+        red = -1;
+        refresh();
+        capture();
     }
 
     // Updates the background
     public void update() {
     	// Update the tween values
-    	r.update();
-    	g.update();
-    	b.update();
-    	fore_x_dir.update();
-    	fore_y_dir.update();
-    	back_x_dir.update();
-    	back_y_dir.update();
+    	tweens.update();
         // Shift the grid position
         this.fore_x_shift += fore_x_dir.value();
         this.fore_y_shift += fore_y_dir.value();
@@ -75,44 +104,96 @@ public class GridBackground extends Drawable {
         this.fore_y_shift %= GRID_SIZE;
         this.back_x_shift %= GRID_SIZE;
         this.back_y_shift %= GRID_SIZE;
-        // Update the opacity
-        opacity.update();
-        if (opacity.value() == 0) return;
-        // Push the clip bounds
-        this.pushClipBounds(Display.drawBounds());
+        // Push the clip bounds if the grid looks different
+        if (refresh()) this.pushClipBounds(Drawable.drawBounds());
     }
 
-    // Draws the background
-    public void draw(Graphics2D g) {
-        int i_x, i_y;
-        // Draw the background
-        g.setColor(new Color(getRed() / 10, getGreen() / 10, getBlue() / 10));
-        g.fill(Display.drawBounds());
-        if (opacity.value() == 0) return;
-        // Draw the foreground grid
-        g.setColor(new Color(getRed(), getGreen(), getBlue(), foregroundOpacity()));
-        i_x = (int) (FORE_OFFSET + fore_x_shift);
-        i_y = (int) (FORE_OFFSET + fore_y_shift);
-        for (int i = -1; i < boxWidth() + 1; i++) {
-            g.drawLine(i_x + i * GRID_SIZE, 0,
-                    i_x + i * GRID_SIZE, Main.DRAW_HEIGHT);
+    // Works out how the grid should be drawn, returning whether it has changed
+    private boolean refresh() {
+        boolean changed = false;
+        // Check the colour
+        if (red != getRed() || green != getGreen() || blue != getBlue()) {
+            red = getRed();
+            green = getGreen();
+            blue = getBlue();
+            fill = new Color(red / 10, green / 10, blue / 10);
+            changed = true;
         }
-        for (int i = -1; i < boxHeight() + 1; i++) {
-            g.drawLine(0, i_y + i * GRID_SIZE,
-                    Main.DRAW_WIDTH, i_y + i * GRID_SIZE);
+        // Check the opacities
+        if (fore_alpha != foregroundOpacity() || back_alpha != backgroundOpacity()) {
+            fore_alpha = foregroundOpacity();
+            back_alpha = backgroundOpacity();
+            changed = true;
         }
-        // Draw the background grid
-        g.setColor(new Color(getRed(), getGreen(), getBlue(), backgroundOpacity()));
-        i_x = (int) (BACK_OFFSET + back_x_shift);
-        i_y = (int) (BACK_OFFSET + back_y_shift);
-        for (int i = -1; i < boxWidth() + 1; i++) {
-            g.drawLine(i_x + i * GRID_SIZE, 0,
-                    i_x + i * GRID_SIZE, Main.DRAW_HEIGHT);
+        // Check the offsets of the visible grids, which only matter to the pixel
+        int x = Math.floorMod((int) (FORE_OFFSET + fore_x_shift), GRID_SIZE);
+        int y = Math.floorMod((int) (FORE_OFFSET + fore_y_shift), GRID_SIZE);
+        if (fore_x != x || fore_y != y) {
+            changed |= fore_alpha != 0;
+            fore_x = x;
+            fore_y = y;
         }
-        for (int i = -1; i < boxHeight() + 1; i++) {
-            g.drawLine(0, i_y + i * GRID_SIZE,
-                    Main.DRAW_WIDTH, i_y + i * GRID_SIZE);
+        x = Math.floorMod((int) (BACK_OFFSET + back_x_shift), GRID_SIZE);
+        y = Math.floorMod((int) (BACK_OFFSET + back_y_shift), GRID_SIZE);
+        if (back_x != x || back_y != y) {
+            changed |= back_alpha != 0;
+            back_x = x;
+            back_y = y;
         }
+        return changed;
+    }
+
+    // Copies how the grid is drawn
+    public void capture() {
+        drawn_red = red;
+        drawn_green = green;
+        drawn_blue = blue;
+        drawn_fore_alpha = fore_alpha;
+        drawn_back_alpha = back_alpha;
+        drawn_fore_x = fore_x;
+        drawn_fore_y = fore_y;
+        drawn_back_x = back_x;
+        drawn_back_y = back_y;
+        drawn_fill = fill;
+    }
+
+    // Draws the background as it was last captured
+    public void draw(Graphics2D g) {
+        long time = Profiler.start();
+        drawGrids(g);
+        Profiler.add(Phase.GRID_DRAW, time);
+    }
+
+    // Draws the fill and both grids
+    private void drawGrids(Graphics2D g) {
+        // Draw the background
+        g.setColor(drawn_fill);
+        g.fillRect(0, 0, Main.DRAW_WIDTH, Main.DRAW_HEIGHT);
+        // Draw the foreground and background grids, tiling a grid box from their offsets
+        if (drawn_fore_alpha != 0) drawGrid(g, getTexture(drawn_fore_alpha), drawn_fore_x, drawn_fore_y);
+        if (drawn_back_alpha != 0) drawGrid(g, getTexture(drawn_back_alpha), drawn_back_x, drawn_back_y);
+    }
+
+    // Fills the screen with a grid box's texture, a box starting at the offset
+    private void drawGrid(Graphics2D g, BufferedImage texture, int x, int y) {
+        g.setPaint(new TexturePaint(texture, new Rectangle(x, y, GRID_SIZE, GRID_SIZE)));
+        g.fillRect(0, 0, Main.DRAW_WIDTH, Main.DRAW_HEIGHT);
+    }
+
+    // Returns the texture of grid lines in the captured colour, drawing it if not available
+    private BufferedImage getTexture(int alpha) {
+        Integer key = (alpha << 24) | (drawn_red << 16) | (drawn_green << 8) | drawn_blue;
+        BufferedImage texture = textures.get(key);
+        if (texture != null) return texture;
+        // Draw the lines along the left and top of a single grid box, which repeats into the grid
+        texture = TileAtlas.createImage(GRID_SIZE, GRID_SIZE);
+        Graphics2D g = texture.createGraphics();
+        g.setColor(new Color(drawn_red, drawn_green, drawn_blue, alpha));
+        g.drawLine(0, 0, 0, GRID_SIZE);
+        g.drawLine(0, 0, GRID_SIZE, 0);
+        g.dispose();
+        textures.put(key, texture);
+        return texture;
     }
 
     // Sets the colour of the grid
@@ -152,16 +233,6 @@ public class GridBackground extends Drawable {
         return (int) (opacity.value() * BACK_OPACITY);
     }
 
-    // Returns the amount of grid boxes that can fit vertically
-    private int boxHeight() {
-        return Main.DRAW_HEIGHT / GRID_SIZE;
-    }
-
-    // Returns the amount of grid boxes that can fit horizontally
-    private int boxWidth() {
-        return Main.DRAW_WIDTH / GRID_SIZE;
-    }
-
     // Returns the opacity tween
     public Tween getOpacity() {
         return opacity;
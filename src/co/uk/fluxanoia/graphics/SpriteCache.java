@@ -0,0 +1,118 @@
+package co.uk.fluxanoia.graphics;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import co.uk.fluxanoia.main.ErrorHandler;
+
+// The SpriteCache class, keeps tiles of an atlas already scaled, flipped and rotated
+// so they can be drawn without a transform, only used on the render thread
+public class SpriteCache {
+
+	// The most sprites kept at once
+	private static final int MAX_SPRITES = 128;
+	// The amount of angles a full turn is split into
+	private static final int ANGLE_STEPS = 360;
+
+	// The Key class, what a sprite was made from
+	private static class Key {
+		// The tile's position on the sheet and the angle step
+		private int tileX, tileY, angle;
+		// The position and size the tile is drawn at about the centre
+		private int x, y, width, height;
+		// Sets the values
+		private Key set(int tileX, int tileY, int angle, int x, int y, int width, int height) {
+			this.tileX = tileX;
+			this.tileY = tileY;
+			this.angle = angle;
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+			return this;
+		}
+		public boolean equals(Object o) {
+			if (!(o instanceof Key)) return false;
+			Key k = (Key) o;
+			return tileX == k.tileX && tileY == k.tileY && angle == k.angle
+					&& x == k.x && y == k.y && width == k.width && height == k.height;
+		}
+		public int hashCode() {
+			int h = tileX;
+			h = h * 31 + tileY;
+			h = h * 31 + angle;
+			h = h * 31 + x;
+			h = h * 31 + y;
+			h = h * 31 + width;
+			return h * 31 + height;
+		}
+	}
+
+	// The Sprite class, a transformed tile and where its corner is from the centre
+	private static class Sprite {
+		private BufferedImage image;
+		private int x, y;
+	}
+
+	// The atlas the tiles come from
+	private TileAtlas atlas;
+	// The sprites, least recently drawn first
+	private LinkedHashMap<Key, Sprite> sprites;
+	// The key used for looking sprites up
+	private Key probe;
+
+	// Constructs a SpriteCache
+	public SpriteCache(TileAtlas atlas) {
+		ErrorHandler.checkNull(atlas, "A SpriteCache was given a null atlas.");
+		// Assign values
+		this.atlas = atlas;
+		// Initialise values
+		this.probe = new Key();
+		this.sprites = new LinkedHashMap<Key, Sprite>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			protected boolean removeEldestEntry(Map.Entry<Key, Sprite> eldest) {
+				return size() > MAX_SPRITES;
+			}
+		};
+	}
+
+	// Draws a tile rotated about a centre, placed and sized about the centre as given,
+	// flipped if the width is negative
+	public void draw(Graphics2D g, int tileX, int tileY, double centreX, double centreY,
+			double rotation, int x, int y, int width, int height) {
+		if (width == 0 || height <= 0) return;
+		int angle = Math.floorMod((int) Math.round(rotation / (2 * Math.PI) * ANGLE_STEPS), ANGLE_STEPS);
+		Sprite s = sprites.get(probe.set(tileX, tileY, angle, x, y, width, height));
+		if (s == null) {
+			BufferedImage tile = atlas.getTile(tileX, tileY);
+			if (tile == null) return;
+			s = render(tile, angle, x, y, width, height);
+			sprites.put(new Key().set(tileX, tileY, angle, x, y, width, height), s);
+		}
+		g.drawImage(s.image, (int) Math.floor(centreX + 0.5) + s.x, (int) Math.floor(centreY + 0.5) + s.y, null);
+	}
+
+	// Draws a tile with its transform into a new sprite
+	private Sprite render(BufferedImage tile, int angle, int x, int y, int width, int height) {
+		AffineTransform at = AffineTransform.getRotateInstance(angle * 2 * Math.PI / ANGLE_STEPS);
+		Rectangle b = at.createTransformedShape(
+				new Rectangle(Math.min(x, x + width), y, Math.abs(width), height)).getBounds();
+		Sprite s = new Sprite();
+		s.x = b.x;
+		s.y = b.y;
+		s.image = TileAtlas.createImage(Math.max(1, b.width), Math.max(1, b.height));
+		Graphics2D g = s.image.createGraphics();
+		g.setComposite(AlphaComposite.Src);
+		g.translate(-b.x, -b.y);
+		g.transform(at);
+		g.drawImage(tile, x, y, width, height, null);
+		g.dispose();
+		return s;
+	}
+
+}
@@ -0,0 +1,78 @@
+package co.uk.fluxanoia.graphics;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+import co.uk.fluxanoia.main.ErrorHandler;
+
+// The TileAtlas class, a sheet of equally sized images sliced up once
+public class TileAtlas {
+
+	// The width and height of each tile
+	private int tileWidth, tileHeight;
+	// The amount of tiles across and down the sheet
+	private int columns, rows;
+	// The tiles, indexed by row then column
+	private BufferedImage[] tiles;
+	// The transformed tiles, made when first asked for
+	private SpriteCache sprites;
+
+	// Constructs a TileAtlas by slicing up a sheet
+	public TileAtlas(BufferedImage sheet, int tileWidth, int tileHeight) {
+		ErrorHandler.checkNull(sheet, "A TileAtlas was given a null sheet.");
+		if (tileWidth <= 0 || tileHeight <= 0)
+			throw new IllegalArgumentException("A TileAtlas was given a non-positive tile size.");
+		// Assign values
+		this.tileWidth = tileWidth;
+		this.tileHeight = tileHeight;
+		// Initialise values
+		this.columns = sheet.getWidth() / tileWidth;
+		this.rows = sheet.getHeight() / tileHeight;
+		this.tiles = new BufferedImage[columns * rows];
+		// Copy each tile into an image suited to the screen
+		Graphics2D g;
+		int sx, sy;
+		for (int y = 0; y < rows; y++) for (int x = 0; x < columns; x++) {
+			BufferedImage tile = createImage(tileWidth, tileHeight);
+			sx = x * tileWidth;
+			sy = y * tileHeight;
+			g = tile.createGraphics();
+			g.setComposite(AlphaComposite.Src);
+			g.drawImage(sheet, 0, 0, tileWidth, tileHeight, sx, sy, sx + tileWidth, sy + tileHeight, null);
+			g.dispose();
+			tiles[y * columns + x] = tile;
+		}
+	}
+
+	// Returns the tile at the position, or the fallback if it's off the sheet
+	public BufferedImage getTile(int x, int y) {
+		return getTile(x, y, null);
+	}
+	public BufferedImage getTile(int x, int y, BufferedImage fallback) {
+		if (x < 0 || y < 0 || x >= columns || y >= rows) return fallback;
+		return tiles[y * columns + x];
+	}
+
+	// Returns the cache of transformed tiles
+	public SpriteCache getSpriteCache() {
+		if (sprites == null) sprites = new SpriteCache(this);
+		return sprites;
+	}
+
+	// Returns the size of the tiles
+	public int getTileWidth() { return tileWidth; }
+	public int getTileHeight() { return tileHeight; }
+
+	// Returns a translucent image in the screen's format, if there is a screen
+	public static BufferedImage createImage(int width, int height) {
+		if (GraphicsEnvironment.isHeadless()) {
+			return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		}
+		return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+				.getDefaultConfiguration().createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+	}
+
+}
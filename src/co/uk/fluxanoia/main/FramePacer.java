@@ -0,0 +1,84 @@
+package co.uk.fluxanoia.main;
+
+import java.util.concurrent.locks.LockSupport;
+
+// The FramePacer class, waits for fixed steps by parking and then spinning
+public class FramePacer {
+
+	// The time before a step at which the pacer stops parking and spins
+	private static final long SPIN_TIME = 1500000;
+
+	// The time in nanoseconds between steps
+	private final long period;
+	// The most steps that can be run to catch up in one go
+	private final int maxSteps;
+	// How far behind a step can start before it's counted as late
+	private final long lateTolerance;
+	// The time when the next step is due
+	private volatile long next;
+	// The amount of steps dropped and run late
+	private volatile long skipped, late;
+
+	// Constructs a FramePacer
+	public FramePacer(long period, int maxSteps) {
+		// Check for invalid values
+		if (period <= 0) throw new IllegalArgumentException("A FramePacer was given a non-positive period.");
+		if (maxSteps <= 0) throw new IllegalArgumentException("A FramePacer was given a non-positive step limit.");
+		// Assign values
+		this.period = period;
+		this.maxSteps = maxSteps;
+		// Initialise values
+		this.lateTolerance = period / 4;
+		this.skipped = 0;
+		this.late = 0;
+		this.reset();
+	}
+
+	// Makes the next step due now
+	public void reset() {
+		this.next = System.nanoTime();
+	}
+
+	// Waits until a step is due and returns the amount of steps to run
+	public int await() {
+		long now = System.nanoTime();
+		long wait = next - now;
+		// Park for most of the wait, then spin for the rest
+		while (wait > 0) {
+			if (wait > SPIN_TIME) {
+				LockSupport.parkNanos(wait - SPIN_TIME);
+			} else {
+				Thread.yield();
+			}
+			now = System.nanoTime();
+			wait = next - now;
+		}
+		// Work out how many steps are due and how many of those are late
+		long behind = now - next;
+		long due = behind / period + 1;
+		long overdue = (behind > lateTolerance) ? (behind - lateTolerance - 1) / period + 1 : 0;
+		// If there's too much to catch up on, drop the oldest steps
+		if (due > maxSteps) {
+			skipped += due - maxSteps;
+			late += Math.max(0, overdue - (due - maxSteps));
+			next = now + period;
+			return maxSteps;
+		}
+		late += overdue;
+		next += due * period;
+		return (int) due;
+	}
+
+	// Returns the time the last of the steps handed out by await was due
+	public long getLastStep() {
+		return next - period;
+	}
+
+	// Returns the time between steps
+	public long getPeriod() { return period; }
+	// Returns the amount of steps dropped to catch up
+	public long getSkipped() { return skipped; }
+	// Returns the amount of steps that started late
+	public long getLate() { return late; }
+
+}
@@ -0,0 +1,16 @@
+package co.uk.fluxanoia.main;
+
+// The GameContext interface, gives game logic its input, audio, resources
+// and frame timing without tying it to a window
+public interface GameContext {
+
+	// Returns the Listener
+	public Listener getListener();
+	// Returns the AudioManager
+	public AudioManager getAudioManager();
+	// Returns the ResourceManager
+	public ResourceManager getResourceManager();
+	// Returns how far the frame being drawn is from the last update to the next, from 0 to 1
+	public double getInterpolation();
+
+}
@@ -1,9 +1,9 @@
 package co.uk.fluxanoia.main;
 
 import java.awt.Graphics2D;
-import java.awt.Rectangle;
 import java.awt.event.KeyEvent;
 
+import co.uk.fluxanoia.graphics.DirtyRegion;
 import co.uk.fluxanoia.graphics.Display;
 import co.uk.fluxanoia.map.MapTool;
 import co.uk.fluxanoia.state.StateManager;
@@ -54,10 +54,16 @@ public abstract class GameMode {
 	
 	// For updating the mode
 	public abstract void update();
-	// For drawing the mode
+	// For copying what the mode is drawn from while the update thread is held off
+	public abstract void capture();
+	// For drawing the mode from what was last copied
 	public abstract void draw(Graphics2D g);
 	// Gets the clip bounds of the active layer
-	public abstract Rectangle dropClipBounds();
+	public abstract DirtyRegion dropClipBounds();
+	// For adding the areas drawn differently from one frame to the next until the next update
+	public abstract void addBlendBounds(DirtyRegion r);
+	// For checking whether anything needs redrawing
+	public abstract boolean isDirty();
 	// For checking whether it should be closed or not
 	public abstract boolean isClosed();
 	
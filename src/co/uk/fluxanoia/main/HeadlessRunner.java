@@ -0,0 +1,109 @@
+package co.uk.fluxanoia.main;
+
+import java.awt.Rectangle;
+
+import co.uk.fluxanoia.control.Controller;
+import co.uk.fluxanoia.control.ScriptedController;
+import co.uk.fluxanoia.graphics.GridBackground;
+import co.uk.fluxanoia.map.Camera;
+import co.uk.fluxanoia.map.Terrain;
+
+// The HeadlessRunner class, simulates a level with no window, no audio and a virtual clock
+public class HeadlessRunner implements GameContext {
+
+	// The default amount of updates to run
+	private static final long DEFAULT_TICKS = 100000;
+
+	// The input listener, which never receives any events
+	private Listener listener;
+	// The resource manager
+	private ResourceManager resourceManager;
+	// The audio manager, which plays nothing
+	private AudioManager audioManager;
+	// The camera
+	private Camera camera;
+	// The grid background
+	private GridBackground gridBackground;
+	// The terrain being simulated
+	private Terrain terrain;
+	// The amount of updates run so far
+	private long tick;
+
+	// Runs a level as fast as possible and reports the update rate
+	public static void main(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+		if (args.length < 1) {
+			System.err.println("Usage: HeadlessRunner <level path> [ticks] [script]");
+			System.exit(1);
+		}
+		long ticks = DEFAULT_TICKS;
+		if (args.length > 1) ticks = Long.valueOf(args[1]);
+		HeadlessRunner runner = new HeadlessRunner(args[0]);
+		if (args.length > 2) {
+			ScriptedController c = new ScriptedController(runner.getListener(), true);
+			c.parseScript(args[2]);
+			runner.setPlayerController(c);
+		}
+		long time = runner.run(ticks);
+		Rectangle player = runner.getTerrain().getPlayerHitbox();
+		System.out.println("Ran " + ticks + " ticks in " + (time / 1000000) + "ms");
+		System.out.println("Ticks per second: " + (long) (ticks / (time / 1e9)));
+		System.out.println("Player at: " + (int) player.getCenterX() + ", " + (int) player.getCenterY());
+		for (String s : Profiler.getReport()) System.out.println(s);
+	}
+
+	// Constructs a HeadlessRunner with a level loaded
+	public HeadlessRunner(String path) {
+		ErrorHandler.checkNull(path, "The HeadlessRunner was given a null path.");
+		// Initialise values
+		this.tick = 0;
+		this.listener = new Listener();
+		this.resourceManager = new ResourceManager();
+		this.audioManager = new NullAudioManager();
+		this.camera = new Camera(0, 0, Main.DRAW_WIDTH, Main.DRAW_HEIGHT);
+		this.gridBackground = new GridBackground(0, 0, 0, 0);
+		this.terrain = new Terrain(this, camera, gridBackground);
+		// Load the level, leaving the player without input
+		terrain.loadLevel(path);
+		terrain.setPlayerController(new ScriptedController(listener));
+	}
+
+	// Runs a single update
+	public void update() {
+		camera.update();
+		gridBackground.update();
+		terrain.update();
+		// Nothing is drawn, so the clip bounds are thrown away
+		camera.dropMoved();
+		gridBackground.dropClipBounds();
+		terrain.dropClipBounds();
+		tick++;
+	}
+
+	// Runs a number of updates back to back, returning the time taken in nanoseconds
+	public long run(long ticks) {
+		long start = System.nanoTime();
+		for (long i = 0; i < ticks; i++) update();
+		return System.nanoTime() - start;
+	}
+
+	// Sets the controller of the player
+	public void setPlayerController(Controller c) {
+		terrain.setPlayerController(c);
+	}
+
+	// Returns the amount of updates run so far
+	public long getTick() { return tick; }
+	// Returns the terrain
+	public Terrain getTerrain() { return terrain; }
+
+	// Returns the Listener
+	public Listener getListener() { return listener; }
+	// Returns the AudioManager
+	public AudioManager getAudioManager() { return audioManager; }
+	// Returns the ResourceManager
+	public ResourceManager getResourceManager() { return resourceManager; }
+	// Returns the interpolation, which is always at the latest update as nothing is drawn
+	public double getInterpolation() { return 1; }
+
+}
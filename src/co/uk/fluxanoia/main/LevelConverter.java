@@ -0,0 +1,21 @@
+package co.uk.fluxanoia.main;
+
+import co.uk.fluxanoia.map.LevelFile;
+
+// The LevelConverter class, converts level files between the text and binary forms
+public class LevelConverter {
+
+	// Converts the level at the first path into the other form at the second path
+	public static void main(String[] args) {
+		if (args.length < 2) {
+			System.err.println("Usage: LevelConverter <source path> <destination path>");
+			System.err.println("Levels ending in " + LevelFile.EXTENSION + " are converted to text, others to binary.");
+			System.exit(1);
+		}
+		long time = System.nanoTime();
+		LevelFile.convert(args[0], args[1]);
+		System.out.println("Converted " + args[0] + " to " + args[1]
+				+ " in " + ((System.nanoTime() - time) / 1000000) + "ms");
+	}
+
+}
@@ -1,5 +1,8 @@
 package co.uk.fluxanoia.main;
 
+import java.awt.DisplayMode;
+import java.awt.GraphicsEnvironment;
+
 import co.uk.fluxanoia.graphics.Display;
 
 // Contains the entry point and is the main controller for the game
@@ -14,11 +17,19 @@ public class Main {
 	public static final int WINDOW_HEIGHT      = 720;
 	// The updates per second that the game runs at
 	private static final int UPDATES_PER_SECOND = 60;
+	// The frames per second that the game draws at if the screen's refresh rate is unknown
+	private static final int FRAMES_PER_SECOND  = 60;
+	// The most updates that can be run at once to catch up
+	private static final int MAX_CATCH_UP       = 5;
 	
 	// The display controller for the game
 	private Display display;
+	// The threads running the simulation and the drawing
+	private Thread updateThread, renderThread;
+	// The pacers for the updates and the drawing
+	private FramePacer updatePacer, renderPacer;
 	// Whether the game should be running or not
-	private boolean running = false;
+	private volatile boolean running = false;
 	
 	// The entry point for the game
 	public static void main(String[] args) {
@@ -36,34 +47,84 @@ public class Main {
 	
 	// Initialises variable
 	private void init() {
+		// Creates the pacers
+		this.updatePacer = new FramePacer(1000000000L / UPDATES_PER_SECOND, MAX_CATCH_UP);
+		this.renderPacer = new FramePacer(1000000000L / getFrameRate(), 1);
 		// Creates a Display object
-		this.display = new Display();
+		this.display = new Display(updatePacer.getPeriod());
 		// Tells the game to run
 		running = true;
+		// Reports the frame timings and pacing on exit
+		Profiler.watch("update", updatePacer);
+		Profiler.watch("render", renderPacer);
+		Profiler.dumpOnExit();
+		// Creates the update and render threads
+		this.updateThread = new Thread(new Runnable() {
+			public void run() {
+				runUpdates();
+			}
+		}, GAME_TITLE + " Update");
+		this.renderThread = new Thread(new Runnable() {
+			public void run() {
+				runRenders();
+			}
+		}, GAME_TITLE + " Render");
 	}
 	
-	// The main game loop
+	// Starts the threads and waits for them to finish
 	private void run() {
-		// The time in nanoseconds between updates
-		int delta_time = (int) (Math.pow(10, 9) / UPDATES_PER_SECOND);
-		// The time when the last update occurred in nanoseconds
-		long last_update = System.nanoTime();
+		updateThread.start();
+		renderThread.start();
+		try {
+			updateThread.join();
+			renderThread.join();
+		} catch (InterruptedException e) {
+			running = false;
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	// The fixed step update loop, run on the update thread
+	private void runUpdates() {
+		updatePacer.reset();
 		// The main game loop
 		while (running) {
-			// While the time since the last update has exceeded the delta, update
-			while (System.nanoTime() - last_update >= delta_time) {
-				last_update += delta_time;
-				this.update();
+			// Wait for the next update, then run any that are due, each at the time it was due
+			int steps = updatePacer.await();
+			long due = updatePacer.getLastStep() - (steps - 1) * updatePacer.getPeriod();
+			for (int i = 0; i < steps && running; i++) this.update(due + i * updatePacer.getPeriod());
+		}
+	}
+	
+	// The draw loop, run on the render thread
+	private void runRenders() {
+		renderPacer.reset();
+		while (running) {
+			// Wait for the next frame, then draw and present it if anything changed
+			renderPacer.await();
+			if (!display.isDirty()) {
+				// Sleep until the game updates, then pick the pace back up from now
+				display.awaitChange();
+				renderPacer.reset();
+				continue;
 			}
-			// Draw when possible
-			this.display.draw();
+			this.display.render();
 		}
 	}
 	
-	// Update the game components
-	private void update() {
-		this.display.update();
-		this.running = display.isRunning();
+	// Returns the refresh rate of the screen, drawing between updates on faster screens
+	private static int getFrameRate() {
+		if (GraphicsEnvironment.isHeadless()) return FRAMES_PER_SECOND;
+		int rate = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+				.getDisplayMode().getRefreshRate();
+		if (rate == DisplayMode.REFRESH_RATE_UNKNOWN) return FRAMES_PER_SECOND;
+		return rate;
+	}
+	
+	// Update the game components for the step due at the given time
+	private void update(long due) {
+		this.display.update(due);
+		if (!display.isRunning()) running = false;
 	}
 	
 }
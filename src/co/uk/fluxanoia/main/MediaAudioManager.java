@@ -0,0 +1,166 @@
+package co.uk.fluxanoia.main;
+
+import java.io.File;
+import java.util.HashMap;
+
+import co.uk.fluxanoia.map.Trigger.MusicTransition;
+import co.uk.fluxanoia.util.Tween;
+import co.uk.fluxanoia.util.Tween.TweenType;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.media.Media;
+import javafx.scene.media.MediaPlayer;
+
+// The MediaAudioManager class, plays SFX and music through the FX runtime
+public class MediaAudioManager extends AudioManager {
+
+    @SuppressWarnings("unused")
+    // The FXPanel to initialise thed FX runtime
+    private final JFXPanel fxPanel;
+
+    // The hash map containing mp3 files
+    private HashMap<String, MediaPlayer> tracks;
+    // The currently playing music
+    private MediaPlayer music, fadeChannel;
+    // The music volume
+    private Tween musicVolume;
+    // The desired volumes
+    private double sfxVolume, fullMusicVolume;
+    // The tracks to be loaded
+    private String[] load_paths = new String[] {
+            MENU_MUSIC,
+            BUTTON_HOVER_ENTER,
+            BUTTON_HOVER_EXIT,
+            BUTTON_SELECT
+    };
+    // Whether everything to be loaded has been loaded
+    private boolean loaded;
+
+    // Initialises the audio manager
+    public MediaAudioManager() {
+        // Initialises values
+        tracks = new HashMap<>();
+        fxPanel = new JFXPanel();
+        sfxVolume = 0.5;
+        fullMusicVolume = 0.5;
+        musicVolume = new Tween(fullMusicVolume);
+        music = null;
+        fadeChannel = null;
+        loaded = false;
+        // Loads tracks
+        load();
+    }
+
+    // Updates the audio manager
+    public void update() {
+        if (!loaded) {
+            for (String p : load_paths) {
+                if (getMP3(p).getStatus() == MediaPlayer.Status.UNKNOWN) return;
+            }
+            loaded = true;
+        }
+        musicVolume.update();
+        if (musicVolume.dropMoved()) {
+        	double vol = musicVolume.value() * fullMusicVolume;
+        	if (music != null) music.setVolume(vol);
+        	if (fadeChannel != null) fadeChannel.setVolume(fullMusicVolume - vol);
+        }
+        if (musicVolume.hasArrived() && fadeChannel != null) {
+        	fadeChannel.stop();
+        	fadeChannel = null;
+        }
+        if (musicVolume.value() == 0) {
+        	this.stopMusic();
+        	music = null;
+        }
+    }
+
+    // Loads the tracks to be loaded
+    private void load() {
+        for (String p : load_paths) {
+            getMP3(p);
+        }
+    }
+
+    // Plays a new music track
+    public void changeMusic(MusicTransition mt, int duration, String path) {
+    	ErrorHandler.checkNull(mt, "The MediaAudioManager was given a null music transition.");
+    	ErrorHandler.checkNull(path, "The MediaAudioManager was given a null path.");
+    	switch (mt) {
+		case FADE_IN:
+			musicVolume.set(0);
+			musicVolume.move(TweenType.LINEAR, 1, duration, 0);
+			if (fadeChannel != null) fadeChannel.stop();
+			fadeChannel = music;
+			music = getMP3(path);
+	        music.setVolume(musicVolume.value());
+	        music.stop();
+	        music.setCycleCount(MediaPlayer.INDEFINITE);
+	        music.play();
+			break;
+		case FADE_OUT:
+			musicVolume.push(TweenType.LINEAR, 0, duration, 0);
+			if (fadeChannel != null) {
+				fadeChannel.stop();
+				fadeChannel = null;
+			}
+			break;
+		case SET:
+			this.stopMusic();
+			if (fadeChannel != null) {
+				fadeChannel.stop();
+				fadeChannel = null;
+			}
+	        music = getMP3(path);
+	        music.setVolume(musicVolume.value());
+	        music.stop();
+	        music.setCycleCount(MediaPlayer.INDEFINITE);
+	        music.play();
+			break;
+		case STOP:
+			this.stopMusic();
+			music = null;
+			if (fadeChannel != null) {
+				fadeChannel.stop();
+				fadeChannel = null;
+			}
+			break;
+    	}
+    }
+    
+    // Stops the current music track
+    public void stopMusic() {
+    	if (music != null) music.stop();
+    }
+
+    // Plays a sound effect
+    public void playSFX(String path) {
+    	ErrorHandler.checkNull(path, "The MediaAudioManager was given a null path.");
+        MediaPlayer sfx = getMP3(path);
+        sfx.setVolume(sfxVolume);
+        sfx.stop();
+        sfx.setCycleCount(1);
+        sfx.play();
+    }
+
+    // Returns whether the audio manager has loaded all it needs yet
+    public boolean isLoaded() { return loaded; }
+
+    // Returns the mp3 file at the path, loading it if not available
+    private MediaPlayer getMP3(String path) {
+    	ErrorHandler.checkNull(path, "The MediaAudioManager was given a null path.");
+    	Media m = null;
+    	if (tracks.get(path) == null) {
+    		try {
+    			m = new Media(new File(path).toURI().toString());
+    		} catch (Exception e) {
+    			System.err.println("The media at path: " + path + ", could not be read.");
+    			e.printStackTrace();
+    			System.exit(1);
+    		}
+    		ErrorHandler.checkNull(m, "The media at path: " + path + ", could not be read.");
+    		tracks.put(path, new MediaPlayer(m));
+    	}
+    	return tracks.get(path);
+    }
+
+}
@@ -0,0 +1,29 @@
+package co.uk.fluxanoia.main;
+
+import co.uk.fluxanoia.map.Trigger.MusicTransition;
+
+// The NullAudioManager class, accepts all audio requests and plays nothing
+public class NullAudioManager extends AudioManager {
+
+    // Updates the audio manager
+    public void update() {
+    }
+
+    // Ignores a music change
+    public void changeMusic(MusicTransition mt, int duration, String path) {
+    	ErrorHandler.checkNull(mt, "The NullAudioManager was given a null music transition.");
+    }
+
+    // Ignores a music stop
+    public void stopMusic() {
+    }
+
+    // Ignores a sound effect
+    public void playSFX(String path) {
+    	ErrorHandler.checkNull(path, "The NullAudioManager was given a null path.");
+    }
+
+    // There's nothing to load, so this is always loaded
+    public boolean isLoaded() { return true; }
+
+}
@@ -0,0 +1,167 @@
+package co.uk.fluxanoia.main;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import co.uk.fluxanoia.util.LatencyHistogram;
+
+// The Profiler class, times the phases of each frame and writes them out on request
+public class Profiler {
+
+	// The phases of a frame that are timed
+	public enum Phase {
+		DISPLAY_UPDATE("Display.update"),
+		STATE_UPDATE("StateManager.update"),
+		TERRAIN_UPDATE("Terrain.update"),
+		COLLISION("GravityEntity.updateCollision"),
+		DISPLAY_PAINT("Display.paint"),
+		TERRAIN_DRAW("Terrain.draw"),
+		GRID_DRAW("GridBackground.draw");
+
+		private String name;
+		Phase(String name) {
+			this.name = name;
+		}
+		public String getName() { return name; }
+	}
+
+	// The histograms for each phase, indexed by phase
+	private static final LatencyHistogram[] histograms = new LatencyHistogram[Phase.values().length];
+	static {
+		for (int i = 0; i < histograms.length; i++) histograms[i] = new LatencyHistogram();
+	}
+	// The time spent in each phase so far this frame and whether any was, indexed by phase,
+	// for phases drawn in pieces and only touched by the render thread
+	private static final long[] frameTimes = new long[histograms.length];
+	private static final boolean[] frameTimed = new boolean[histograms.length];
+	// The thread reports are written on when asked for while running
+	private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(new ThreadFactory() {
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, Main.GAME_TITLE + " Profiler Writer");
+			t.setDaemon(true);
+			return t;
+		}
+	});
+	// The frame pacers being watched, with their names
+	private static final ArrayList<FramePacer> pacers = new ArrayList<>();
+	private static final ArrayList<String> pacerNames = new ArrayList<>();
+
+	// Returns the time to pass to record
+	public static long start() {
+		return System.nanoTime();
+	}
+
+	// Records the time since start against a phase
+	public static void record(Phase phase, long start) {
+		histograms[phase.ordinal()].record(System.nanoTime() - start);
+	}
+
+	// Adds the time since start to a phase's time this frame, for phases drawn once per damaged area
+	public static void add(Phase phase, long start) {
+		frameTimes[phase.ordinal()] += System.nanoTime() - start;
+		frameTimed[phase.ordinal()] = true;
+	}
+
+	// Records the time added to each phase this frame as one time, called by the render thread
+	// once the frame is drawn
+	public static void endFrame() {
+		for (int i = 0; i < frameTimes.length; i++) {
+			if (!frameTimed[i]) continue;
+			histograms[i].record(frameTimes[i]);
+			frameTimes[i] = 0;
+			frameTimed[i] = false;
+		}
+	}
+
+	// Adds a frame pacer to the report
+	public static synchronized void watch(String name, FramePacer pacer) {
+		ErrorHandler.checkNull(name, "The Profiler was given a null name.");
+		ErrorHandler.checkNull(pacer, "The Profiler was given a null pacer.");
+		pacerNames.add(name);
+		pacers.add(pacer);
+	}
+
+	// Clears all the recorded times
+	public static void reset() {
+		for (int i = 0; i < histograms.length; i++) histograms[i].reset();
+	}
+
+	// Returns the report as CSV lines, with times in microseconds
+	public static synchronized ArrayList<String> getReport() {
+		ArrayList<String> lines = new ArrayList<>();
+		lines.add("phase,count,mean_us,p50_us,p99_us,p99.9_us,max_us");
+		Phase[] phases = Phase.values();
+		LatencyHistogram h;
+		for (int i = 0; i < phases.length; i++) {
+			h = histograms[i];
+			lines.add(phases[i].getName() + ","
+					+ h.getCount() + ","
+					+ micros(h.getMean()) + ","
+					+ micros(h.percentile(0.5)) + ","
+					+ micros(h.percentile(0.99)) + ","
+					+ micros(h.percentile(0.999)) + ","
+					+ micros(h.getMax()));
+		}
+		if (!pacers.isEmpty()) {
+			lines.add("");
+			lines.add("pacer,skipped,late");
+			for (int i = 0; i < pacers.size(); i++) {
+				lines.add(pacerNames.get(i) + "," + pacers.get(i).getSkipped() + "," + pacers.get(i).getLate());
+			}
+		}
+		return lines;
+	}
+
+	// Writes the report to a timestamped file, returning its path or null on failure
+	public static String dump() {
+		// This may run in a shutdown hook, so failures are reported rather than exiting
+		String name = "profile_" + new SimpleDateFormat("yyyyMMdd_HHmmss_SSS").format(new Date()) + ".csv";
+		File file = new File(ResourceManager.getPath() + name);
+		try {
+			BufferedWriter bw = new BufferedWriter(new FileWriter(file.getAbsoluteFile()));
+			for (String s : getReport()) {
+				bw.write(s);
+				bw.newLine();
+			}
+			bw.close();
+		} catch (Exception e) {
+			System.err.println("The profile could not be written to: " + file.getPath());
+			e.printStackTrace();
+			return null;
+		}
+		return file.getPath();
+	}
+
+	// Writes the report on the writer thread, so the caller isn't held up by the file, and says
+	// where it was written; times recorded while it's written may or may not make it in
+	public static void dumpLater() {
+		WRITER.execute(new Runnable() {
+			public void run() {
+				String path = dump();
+				if (path != null) System.out.println("Frame timings written to " + path);
+			}
+		});
+	}
+
+	// Writes the report out when the program exits
+	public static void dumpOnExit() {
+		Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+			public void run() {
+				dump();
+			}
+		}, "Profiler Dump"));
+	}
+
+	// Converts nanoseconds to microseconds with one decimal place
+	private static String micros(double nanos) {
+		return String.valueOf(Math.round(nanos / 100.0) / 10.0);
+	}
+
+}
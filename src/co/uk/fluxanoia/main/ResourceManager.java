@@ -5,14 +5,18 @@ import java.awt.image.BufferedImage;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Scanner;
 
 import javax.imageio.ImageIO;
 
-import javafx.scene.media.Media;
-import javafx.scene.media.MediaPlayer;
+import co.uk.fluxanoia.entity.AnimationDefinition;
+import co.uk.fluxanoia.graphics.TileAtlas;
 
 // The resource manager, helps the loading of resources be minimal
 public class ResourceManager {
@@ -29,34 +33,17 @@ public class ResourceManager {
 
 	// The hash map containing textures
 	private HashMap<String, BufferedImage> images;
-	// The hash map containing mp3 files
-	private HashMap<String, MediaPlayer> tracks;
+	// The hash map containing sliced up textures
+	private HashMap<String, TileAtlas> atlases;
+	// The hash map containing animations
+	private HashMap<String, AnimationDefinition> animations;
 
 	// Constructs the ResourceManager
 	public ResourceManager() {
 		// Initialises values
 		images = new HashMap<>();
-		tracks = new HashMap<>();
-	}
-
-	// ------------------------------------- MUSIC TRACKS
-
-	// Returns the mp3 file at the path, loading it if not available
-	public MediaPlayer getMP3(String path) {
-		ErrorHandler.checkNull(path, "The ResourceManager was given a null path (String).");
-		Media m = null;
-		if (tracks.get(path) == null) {
-			try {
-				m = new Media(new File(path).toURI().toString());
-			} catch (Exception e) {
-				System.err.println("The media at path: " + path + ", could not be read.");
-				e.printStackTrace();
-				System.exit(1);
-			}
-			ErrorHandler.checkNull(m, "The media at path: " + path + ", could not be read.");
-			tracks.put(path, new MediaPlayer(m));
-		}
-		return tracks.get(path);
+		atlases = new HashMap<>();
+		animations = new HashMap<>();
 	}
 
 	// ------------------------------------- IMAGES
@@ -84,6 +71,26 @@ public class ResourceManager {
 		return images.get(path);
 	}
 
+	// Returns the image at the path sliced into tiles, slicing it if not available
+	public TileAtlas getAtlas(String path, int tileWidth, int tileHeight) {
+		ErrorHandler.checkNull(path, "The ResourceManager was given a null path (String).");
+		String key = path + "_" + tileWidth + "_" + tileHeight;
+		if (atlases.get(key) == null) {
+			atlases.put(key, new TileAtlas(getImage(path), tileWidth, tileHeight));
+		}
+		return atlases.get(key);
+	}
+
+	// Returns the animation read from the path, reading it if not available,
+	// or null if the file is malformed
+	public AnimationDefinition getAnimation(String path) {
+		ErrorHandler.checkNull(path, "The ResourceManager was given a null path (String).");
+		if (!animations.containsKey(path)) {
+			animations.put(path, AnimationDefinition.read(path));
+		}
+		return animations.get(path);
+	}
+
 	// Returns either the subimage from the tileset or the empty texture
 	public static BufferedImage getTile(BufferedImage tileset,
 			BufferedImage empty, int x, int y, int size) {
@@ -211,6 +218,91 @@ public class ResourceManager {
 		}
 	}
 
+	// Maps a file into memory to be read, which on Windows stops it being overwritten until the
+	// buffer is collected, so only files that aren't rewritten while running should be mapped
+	public static MappedByteBuffer mapFile(String path) {
+		ErrorHandler.checkNull(path, "The ResourceManager was given a null path (String).");
+		// Get the jar path and attach the ending
+		File file = new File(getPath() + path);
+		// Map the whole file, which stays readable after the channel is closed
+		try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			return fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
+		} catch (Exception e) {
+			System.err.println("The file at path: " + path + ", could not be read.");
+			e.printStackTrace();
+			System.exit(1);
+		}
+		return null;
+	}
+
+	// Reads the whole of a file into a buffer on the heap, leaving nothing open on the file
+	// so it can be overwritten straight after
+	public static ByteBuffer readBytes(String path) {
+		ErrorHandler.checkNull(path, "The ResourceManager was given a null path (String).");
+		// Get the jar path and attach the ending
+		File file = new File(getPath() + path);
+		// Read until the buffer is full or the file ends
+		try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = fc.size();
+			if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("The file at path: " + path + ", is too large to read.");
+			ByteBuffer b = ByteBuffer.allocate((int) size);
+			while (b.hasRemaining() && fc.read(b) >= 0);
+			b.flip();
+			return b;
+		} catch (Exception e) {
+			System.err.println("The file at path: " + path + ", could not be read.");
+			e.printStackTrace();
+			System.exit(1);
+		}
+		return null;
+	}
+
+	// Overwrites a file with the remaining bytes of a buffer
+	public static void overwriteFile(String path, ByteBuffer bytes) {
+		ErrorHandler.checkNull(path, "The ResourceManager was given a null path (String).");
+		ErrorHandler.checkNull(bytes, "The ResourceManager was given a null byte buffer.");
+		// Get the file
+		File file = new File(getPath() + path);
+		// Write to the file
+		try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (bytes.hasRemaining()) fc.write(bytes);
+		} catch (Exception e) {
+			System.err.println("The file at path: " + path + ", could not be overwritten.");
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+	// Opens a file to be overwritten, returning the channel to write it through
+	public static FileChannel openFileChannel(String path) {
+		ErrorHandler.checkNull(path, "The ResourceManager was given a null path (String).");
+		// Get the file
+		File file = new File(getPath() + path);
+		// Open the file, emptying it
+		try {
+			return FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+					StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+		} catch (Exception e) {
+			System.err.println("The file at path: " + path + ", could not be overwritten.");
+			e.printStackTrace();
+			System.exit(1);
+		}
+		return null;
+	}
+
+	// Returns whether a file exists
+	public static boolean fileExists(String path) {
+		ErrorHandler.checkNull(path, "The ResourceManager was given a null path (String).");
+		return new File(getPath() + path).isFile();
+	}
+
+	// Returns when a file was last changed, or 0 if it doesn't exist
+	public static long lastModified(String path) {
+		ErrorHandler.checkNull(path, "The ResourceManager was given a null path (String).");
+		return new File(getPath() + path).lastModified();
+	}
+
 	// Creates a file, returning true if created
 	public static void createFile(String path, ArrayList<String> strings) {
 		ErrorHandler.checkNull(path, "The ResourceManager was given a null path (String).");
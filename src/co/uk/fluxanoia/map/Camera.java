@@ -3,24 +3,30 @@ package co.uk.fluxanoia.map;
 import java.awt.Rectangle;
 
 import co.uk.fluxanoia.util.Tween;
+import co.uk.fluxanoia.util.TweenEngine;
 
 // The camera class, represents what is currently being viewed on the terrain
 public class Camera {
 
+	// The engine moving the camera's tweens
+	private TweenEngine tweens;
 	// The camera's position
 	private Tween x, y;
 	// The camera's dimension
 	private Tween width, height;
+	// The camera's position at the end of the last update
+	private double prevX, prevY;
 	// Whether the camera has moved since it was last checked
 	private boolean moved;
 	
 	// Constructs a Camera
 	public Camera(double x, double y, double width, double height) {
 		// Initialise values
-		this.x = new Tween(0);
-		this.y = new Tween(0);
-		this.width = new Tween(0);
-		this.height = new Tween(0);
+		this.tweens = new TweenEngine(4);
+		this.x = tweens.create(0);
+		this.y = tweens.create(0);
+		this.width = tweens.create(0);
+		this.height = tweens.create(0);
 		setPosition(x, y, width, height);
 	}
 	
@@ -30,15 +36,16 @@ public class Camera {
 		this.y.set(y);
 		this.width.set(width);
 		this.height.set(height);
+		this.prevX = x;
+		this.prevY = y;
 		moved = true;
 	}
 	
 	// Updates the values
 	public void update() {
-		this.x.update();
-		this.y.update();
-		this.width.update();
-		this.height.update();
+		this.prevX = this.x.value();
+		this.prevY = this.y.value();
+		this.tweens.update();
 		moved |= this.x.dropMoved() ||
 				 this.y.dropMoved() ||
 				 this.width.dropMoved() ||
@@ -54,6 +61,16 @@ public class Camera {
 				(int) height.value());
 	}
 	
+	// Returns whether the camera has moved, without dropping the value
+	public boolean hasMoved() {
+		return moved;
+	}
+	
+	// Returns whether the camera is between positions, so frames drawn between updates differ
+	public boolean isBlending() {
+		return prevX != x.value() || prevY != y.value();
+	}
+	
 	// Drops the moved value
 	public boolean dropMoved() {
 		if (moved) {
@@ -66,6 +83,9 @@ public class Camera {
 	// Returns the camera's position
 	public double getX() { return x.value(); }
 	public double getY() { return y.value(); }
+	// Returns the camera's position at the end of the last update
+	public double getPreviousX() { return prevX; }
+	public double getPreviousY() { return prevY; }
 	// Returns the camera's position tweens
 	public Tween getTweenX() { return x; }
 	public Tween getTweenY() { return y; }
@@ -1,7 +1,6 @@
 package co.uk.fluxanoia.map;
 
 import co.uk.fluxanoia.main.ErrorHandler;
-import co.uk.fluxanoia.util.Tween;
 
 // The cell class, representing a part of the map
 public abstract class Cell {
@@ -34,7 +33,7 @@ public abstract class Cell {
 	// The type of this cell
 	private CellType type;
 	// The x and y values of the cell
-	private Tween x, y;
+	private int x, y;
 	// The cell x and y values
 	private int cellx, celly;
 	// The x and y values of the cells texture
@@ -48,8 +47,8 @@ public abstract class Cell {
 		this.type = type;
 		this.cellx = cellx;
 		this.celly = celly;
-		this.x = new Tween(cellx * Terrain.GRID_SIZE);
-		this.y = new Tween(celly * Terrain.GRID_SIZE);
+		this.x = cellx * Terrain.GRID_SIZE;
+		this.y = celly * Terrain.GRID_SIZE;
 		this.textureX = textureX;
 		this.textureY = textureY;
 	}
@@ -74,12 +73,9 @@ public abstract class Cell {
 	public void setTextureX(int textureX) { this.textureX = textureX; }
 	public void setTextureY(int textureY) { this.textureY = textureY; }
 	
-	// Returns the x and y tweens
-	public Tween getTweenX() { return x; }
-	public Tween getTweenY() { return y; }
 	// Returns the x and y values
-	public int getX() { return (int) this.x.value(); }
-	public int getY() { return (int) this.y.value(); }
+	public int getX() { return this.x; }
+	public int getY() { return this.y; }
 	// Returns the x and y cell values
 	public int getCellX() { return (int) this.cellx; }
 	public int getCellY() { return (int) this.celly; }
@@ -0,0 +1,173 @@
+package co.uk.fluxanoia.map;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import co.uk.fluxanoia.main.ErrorHandler;
+
+// The CellIndex class, holds at most one cell per position, finding them by their packed position
+// in an open-addressed table and keeping them packed in an array to be looped over
+public class CellIndex implements Iterable<Cell> {
+
+	// The smallest table size, which must be a power of two
+	private static final int MIN_CAPACITY = 16;
+	// The number positions are multiplied by to spread them over the table
+	private static final long SPREAD = 0x9E3779B97F4A7C15L;
+
+	// The packed position held in each slot of the table
+	private long[] keys;
+	// The index of each slot's cell in the cells array plus one, or 0 if the slot is empty
+	private int[] slots;
+	// The cells held, in the order they were added unless one has been removed
+	private Cell[] cells;
+	// The amount of cells held
+	private int size;
+	// The amount of times a cell has been added or removed
+	private int modCount;
+
+	// Constructs an empty CellIndex
+	public CellIndex() {
+		this.keys = new long[MIN_CAPACITY];
+		this.slots = new int[MIN_CAPACITY];
+		this.cells = new Cell[MIN_CAPACITY / 2];
+		this.size = 0;
+	}
+
+	// Returns the cell at the position, or null if there isn't one
+	public Cell get(int x, int y) {
+		int slot = find(key(x, y));
+		return (slots[slot] == 0) ? null : cells[slots[slot] - 1];
+	}
+	// Returns the cell at an index of the array, from 0 up to the size
+	public Cell get(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("A CellIndex was given an index out of range.");
+		return cells[index];
+	}
+
+	// Adds a cell to its position, returning false if the position already holds one
+	public boolean add(Cell c) {
+		ErrorHandler.checkNull(c, "A CellIndex was given a null cell.");
+		long key = key(c.getCellX(), c.getCellY());
+		int slot = find(key);
+		if (slots[slot] != 0) return false;
+		// Grow before the table gets over half full, finding the slot again
+		if ((size + 1) * 2 > keys.length) {
+			resize(keys.length * 2);
+			slot = find(key);
+		}
+		if (size == cells.length) {
+			Cell[] grown = new Cell[cells.length * 2];
+			System.arraycopy(cells, 0, grown, 0, size);
+			cells = grown;
+		}
+		cells[size++] = c;
+		keys[slot] = key;
+		slots[slot] = size;
+		modCount++;
+		return true;
+	}
+
+	// Removes and returns the cell at the position, or null if there isn't one
+	public Cell remove(int x, int y) {
+		int slot = find(key(x, y));
+		if (slots[slot] == 0) return null;
+		int index = slots[slot] - 1;
+		Cell removed = cells[index];
+		modCount++;
+		// Move the last cell into the gap in the array
+		size--;
+		if (index != size) {
+			cells[index] = cells[size];
+			slots[find(key(cells[index].getCellX(), cells[index].getCellY()))] = index + 1;
+		}
+		cells[size] = null;
+		// Empty the slot, shifting back any later slots that can no longer be reached
+		int mask = keys.length - 1, next = slot, home;
+		slots[slot] = 0;
+		while (true) {
+			next = (next + 1) & mask;
+			if (slots[next] == 0) break;
+			home = home(keys[next]);
+			// Leave the slot if its home lies cyclically between the gap and it
+			if (slot <= next ? (slot < home && home <= next) : (slot < home || home <= next)) continue;
+			keys[slot] = keys[next];
+			slots[slot] = slots[next];
+			slots[next] = 0;
+			slot = next;
+		}
+		return removed;
+	}
+
+	// Removes every cell
+	public void clear() {
+		for (int i = 0; i < slots.length; i++) slots[i] = 0;
+		for (int i = 0; i < size; i++) cells[i] = null;
+		size = 0;
+		modCount++;
+	}
+
+	// Returns the amount of cells held
+	public int size() {
+		return size;
+	}
+
+	// Returns how many times a cell has been added or removed, to tell when the cells have changed
+	public int getModCount() {
+		return modCount;
+	}
+
+	// Returns a copy of the cells held
+	public Cell[] toArray() {
+		Cell[] copy = new Cell[size];
+		System.arraycopy(cells, 0, copy, 0, size);
+		return copy;
+	}
+
+	// Returns an iterator over the cells held
+	public Iterator<Cell> iterator() {
+		return new Iterator<Cell>() {
+			private int next = 0;
+			public boolean hasNext() {
+				return next < size;
+			}
+			public Cell next() {
+				if (next >= size) throw new NoSuchElementException();
+				return cells[next++];
+			}
+		};
+	}
+
+	// Returns the slot holding a position, or the empty slot it would go in
+	private int find(long key) {
+		int mask = keys.length - 1, slot = home(key);
+		while (slots[slot] != 0 && keys[slot] != key) slot = (slot + 1) & mask;
+		return slot;
+	}
+
+	// Moves every slot into a table of a new size
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldSlots = slots;
+		keys = new long[capacity];
+		slots = new int[capacity];
+		int slot;
+		for (int i = 0; i < oldSlots.length; i++) {
+			if (oldSlots[i] == 0) continue;
+			slot = find(oldKeys[i]);
+			keys[slot] = oldKeys[i];
+			slots[slot] = oldSlots[i];
+		}
+	}
+
+	// Returns the slot a position would be in if nothing were in the way
+	private int home(long key) {
+		return (int) ((key * SPREAD) >>> (64 - Integer.numberOfTrailingZeros(keys.length)));
+	}
+
+	// Returns the key of a cell position
+	private static long key(int x, int y) {
+		return ((long) x << 32) | (y & 0xFFFFFFFFL);
+	}
+
+}
@@ -0,0 +1,153 @@
+package co.uk.fluxanoia.map;
+
+import java.awt.Rectangle;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import co.uk.fluxanoia.main.ErrorHandler;
+import co.uk.fluxanoia.main.Main;
+
+// The ChunkStreamer class, keeps only the chunks of a binary level around the camera in a tile map,
+// reading the rest in on a background thread and handing them over at the start of an update
+public class ChunkStreamer {
+
+	// The thread chunks are read on, shared by every streamer
+	private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(new ThreadFactory() {
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, Main.GAME_TITLE + " Chunk Loader");
+			t.setDaemon(true);
+			return t;
+		}
+	});
+
+	// The LoadedChunk class, the cells of a chunk read on the loading thread
+	private static class LoadedChunk {
+		// The chunk's position in chunks
+		private int x, y;
+		// The chunk's cells
+		private int[] cells;
+		// Constructs a LoadedChunk
+		private LoadedChunk(int x, int y, int[] cells) {
+			this.x = x;
+			this.y = y;
+			this.cells = cells;
+		}
+	}
+
+	// The level being streamed and the tiles it's streamed into
+	private LevelFile level;
+	private TileMap tiles;
+	// How far past the camera chunks are loaded, in pixels
+	private int margin;
+	// The chunks that have been read and are waiting to be handed over
+	private ConcurrentLinkedQueue<LoadedChunk> loaded;
+	// The chunks being read and the chunks in the tile map, keyed by position
+	private HashSet<Long> pending, resident;
+	// The chunks last wanted, inclusive
+	private int minX, minY, maxX, maxY;
+
+	// Constructs a ChunkStreamer, with no chunks loaded until it's first updated
+	public ChunkStreamer(LevelFile level, TileMap tiles, int margin) {
+		ErrorHandler.checkNull(level, "A ChunkStreamer was given a null level.");
+		ErrorHandler.checkNull(tiles, "A ChunkStreamer was given a null tile map.");
+		// Assign values
+		this.level = level;
+		this.tiles = tiles;
+		this.setMargin(margin);
+		// Initialise values
+		this.loaded = new ConcurrentLinkedQueue<>();
+		this.pending = new HashSet<>();
+		this.resident = new HashSet<>();
+		this.minX = this.minY = 0;
+		this.maxX = this.maxY = -1;
+		// Make the tile map cover the whole level now, so it never grows while being drawn
+		if (level.getChunksAcross() > 0) tiles.cover(level.getMinChunkX(), level.getMinChunkY(),
+				level.getMinChunkX() + level.getChunksAcross() - 1, level.getMinChunkY() + level.getChunksDown() - 1);
+	}
+
+	// Hands over the chunks that have been read, then asks for the chunks around the camera
+	// and lets go of those that have fallen out of view
+	public void update(Rectangle camera) {
+		ErrorHandler.checkNull(camera, "A ChunkStreamer was given a null camera bound.");
+		// Hand over the chunks read since the last update, if they're still wanted
+		LoadedChunk c;
+		while ((c = loaded.poll()) != null) {
+			pending.remove(key(c.x, c.y));
+			if (!isKept(c.x, c.y) || !resident.add(key(c.x, c.y))) continue;
+			tiles.putChunk(c.x, c.y, c.cells);
+		}
+		// Find the chunks around the camera, only doing anything if they've changed
+		int x1 = chunkOf(camera.x - margin), y1 = chunkOf(camera.y - margin);
+		int x2 = chunkOf(camera.x + camera.width + margin), y2 = chunkOf(camera.y + camera.height + margin);
+		if (x1 == minX && y1 == minY && x2 == maxX && y2 == maxY) return;
+		minX = x1;
+		minY = y1;
+		maxX = x2;
+		maxY = y2;
+		// Ask for the chunks that aren't loaded or being read
+		for (int cy = minY; cy <= maxY; cy++) for (int cx = minX; cx <= maxX; cx++) {
+			if (!level.hasChunk(cx, cy)) continue;
+			if (resident.contains(key(cx, cy)) || !pending.add(key(cx, cy))) continue;
+			request(cx, cy);
+		}
+		// Let go of the chunks that are a chunk or more out of range
+		long k;
+		for (Iterator<Long> i = resident.iterator(); i.hasNext();) {
+			k = i.next();
+			if (isKept((int) (k >> 32), (int) k)) continue;
+			tiles.removeChunk((int) (k >> 32), (int) k);
+			i.remove();
+		}
+	}
+
+	// Reads any chunks touching an area that aren't loaded yet straight away, such as those
+	// an entity is about to collide with
+	public void require(Rectangle area) {
+		ErrorHandler.checkNull(area, "A ChunkStreamer was given a null area.");
+		int x1 = chunkOf(area.x), y1 = chunkOf(area.y);
+		int x2 = chunkOf(area.x + area.width), y2 = chunkOf(area.y + area.height);
+		for (int cy = y1; cy <= y2; cy++) for (int cx = x1; cx <= x2; cx++) {
+			if (!level.hasChunk(cx, cy) || !resident.add(key(cx, cy))) continue;
+			tiles.putChunk(cx, cy, level.readChunk(cx, cy));
+		}
+	}
+
+	// Reads a chunk on the loading thread
+	private void request(final int cx, final int cy) {
+		LOADER.execute(new Runnable() {
+			public void run() {
+				loaded.add(new LoadedChunk(cx, cy, level.readChunk(cx, cy)));
+			}
+		});
+	}
+
+	// Returns whether a chunk is close enough to the wanted chunks to be kept
+	private boolean isKept(int cx, int cy) {
+		return cx >= minX - 1 && cy >= minY - 1 && cx <= maxX + 1 && cy <= maxY + 1;
+	}
+
+	// Sets how far past the camera chunks are loaded, in pixels
+	public void setMargin(int margin) {
+		if (margin < 0) throw new IllegalArgumentException("A ChunkStreamer was given a negative margin.");
+		this.margin = margin;
+	}
+
+	// Returns the amount of chunks loaded and being read
+	public int getResident() { return resident.size(); }
+	public int getPending() { return pending.size(); }
+
+	// Returns the chunk a pixel position is in
+	private static int chunkOf(int x) {
+		return Math.floorDiv(x, ChunkedTileLayer.CHUNK_PIXELS);
+	}
+
+	// Returns the key of a chunk position
+	private static long key(int x, int y) {
+		return ((long) x << 32) | (y & 0xFFFFFFFFL);
+	}
+
+}
@@ -0,0 +1,279 @@
+package co.uk.fluxanoia.map;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import co.uk.fluxanoia.graphics.TileAtlas;
+import co.uk.fluxanoia.main.ErrorHandler;
+
+// The ChunkedTileLayer class, draws tiles as pre-rendered square chunks of cells,
+// keeping what the camera saw last so only newly exposed strips are drawn when it moves;
+// the cells are copied out of the tile map when captured, so drawing never reads it
+public class ChunkedTileLayer {
+
+	// The width and height of a chunk in cells
+	public static final int CHUNK_SIZE = TileMap.CHUNK_SIZE;
+	// The width and height of a chunk in pixels
+	public static final int CHUNK_PIXELS = CHUNK_SIZE * Terrain.GRID_SIZE;
+	// The most chunk images kept at once
+	private static final int MAX_BAKED = 64;
+	// The colour areas of the view are cleared to
+	private static final Color CLEAR = new Color(0, 0, 0, 0);
+
+	// The Chunk class, a square of cells and its rendered image
+	private static class Chunk {
+		// The chunk's position in chunks
+		private int x, y;
+		// The version of the cells last captured, and a copy of them or null if the chunk was empty
+		private int version;
+		private int[] cells;
+		// Whether the cells have changed since the chunk was last drawn into the view
+		private boolean changed;
+		// The rendered chunk, or null if it needs rendering
+		private BufferedImage image;
+		// Constructs a Chunk
+		private Chunk(int x, int y) {
+			this.x = x;
+			this.y = y;
+			this.image = null;
+		}
+	}
+
+	// The tiles being drawn, only read while capturing
+	private TileMap tiles;
+	// The chunks that have been captured, laid out the same way as the chunks of the tile map
+	private Chunk[] chunks;
+	// The first chunk and the amount of chunks across and down the array covers
+	private int minX, minY, width, height;
+	// The chunks last captured, inclusive
+	private int capturedMinX, capturedMinY, capturedMaxX, capturedMaxY;
+	// The amount of changes made to the tiles when they were last captured
+	private int seenModCount;
+	// Whether any chunk has changed since the view was last drawn
+	private boolean changed;
+	// The chunks that have images, least recently drawn first
+	private LinkedHashMap<Chunk, Boolean> baked;
+	// The game's tileset and the empty texture
+	private TileAtlas tileset;
+	private BufferedImage empty;
+	// The tiles the camera last saw, stored wrapped around so that
+	// the world position (x, y) is at (x mod width, y mod height)
+	private BufferedImage view;
+	// The world position of the area held by the view
+	private int viewX, viewY;
+	// Whether the view holds anything
+	private boolean viewValid;
+
+	// Constructs a ChunkedTileLayer
+	public ChunkedTileLayer(TileMap tiles, TileAtlas tileset, BufferedImage empty) {
+		ErrorHandler.checkNull(tiles, "A ChunkedTileLayer was given a null tile map.");
+		ErrorHandler.checkNull(tileset, "A ChunkedTileLayer was given a null tileset.");
+		ErrorHandler.checkNull(empty, "A ChunkedTileLayer was given a null empty texture.");
+		// Assign values
+		this.tiles = tiles;
+		this.seenModCount = tiles.getModCount();
+		this.tileset = tileset;
+		this.empty = empty;
+		// Initialise values
+		this.chunks = new Chunk[0];
+		this.minX = this.minY = 0;
+		this.width = this.height = 0;
+		this.capturedMinX = this.capturedMinY = 0;
+		this.capturedMaxX = this.capturedMaxY = -1;
+		this.changed = false;
+		this.baked = new LinkedHashMap<Chunk, Boolean>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			protected boolean removeEldestEntry(Map.Entry<Chunk, Boolean> eldest) {
+				// Let go of the image of the chunk drawn longest ago
+				if (size() <= MAX_BAKED) return false;
+				eldest.getKey().image = null;
+				return true;
+			}
+		};
+	}
+
+	// Copies the cells of the chunks touching an area that have changed since they were last
+	// captured, called while the tile map is held still; everything drawn must lie in the area
+	public void capture(Rectangle area) {
+		ErrorHandler.checkNull(area, "A ChunkedTileLayer was given a null capture area.");
+		align();
+		int x1 = Math.floorDiv(area.x, CHUNK_PIXELS), y1 = Math.floorDiv(area.y, CHUNK_PIXELS);
+		int x2 = Math.floorDiv(area.x + area.width - 1, CHUNK_PIXELS);
+		int y2 = Math.floorDiv(area.y + area.height - 1, CHUNK_PIXELS);
+		// If neither the tiles nor the chunks wanted have changed, there's nothing to copy
+		int modCount = tiles.getModCount();
+		if (modCount == seenModCount && x1 == capturedMinX && y1 == capturedMinY
+				&& x2 == capturedMaxX && y2 == capturedMaxY) return;
+		seenModCount = modCount;
+		capturedMinX = x1;
+		capturedMinY = y1;
+		capturedMaxX = x2;
+		capturedMaxY = y2;
+		Chunk c;
+		int[] cells;
+		int version;
+		for (int cy = y1; cy <= y2; cy++) for (int cx = x1; cx <= x2; cx++) {
+			c = getChunk(cx, cy);
+			version = tiles.getVersion(cx, cy);
+			if (c != null && c.version == version) continue;
+			cells = tiles.getChunk(cx, cy);
+			if (c == null) {
+				// Chunks that have never held anything have nothing to draw
+				if (cells == null) continue;
+				c = new Chunk(cx, cy);
+				chunks[(cy - minY) * width + (cx - minX)] = c;
+			}
+			c.version = version;
+			c.cells = (cells == null) ? null : cells.clone();
+			c.changed = true;
+			c.image = null;
+			baked.remove(c);
+			changed = true;
+		}
+	}
+
+	// Draws the captured tiles within the camera bounds
+	public void draw(Graphics2D g, Rectangle r) {
+		ErrorHandler.checkNull(r, "A ChunkedTileLayer was given a null camera bound.");
+		if (r.width <= 0 || r.height <= 0) return;
+		updateView(r);
+		// Copy the view out, in up to four pieces where it wraps around
+		int w = view.getWidth(), h = view.getHeight();
+		int bx = Math.floorMod(r.x, w), by = Math.floorMod(r.y, h);
+		int sw = w - bx, sh = h - by;
+		g.drawImage(view, 0, 0, sw, sh, bx, by, w, h, null);
+		if (bx != 0) g.drawImage(view, sw, 0, w, sh, 0, by, bx, h, null);
+		if (by != 0) g.drawImage(view, 0, sh, sw, h, bx, 0, w, by, null);
+		if (bx != 0 && by != 0) g.drawImage(view, sw, sh, w, h, 0, 0, bx, by, null);
+	}
+
+	// Brings the view up to date with the camera bounds, drawing only what it doesn't hold
+	private void updateView(Rectangle r) {
+		// If the view can't be reused, draw all of it
+		if (view == null || view.getWidth() != r.width || view.getHeight() != r.height) {
+			view = TileAtlas.createImage(r.width, r.height);
+			viewValid = false;
+		}
+		// If chunks have changed, such as by being streamed in or out, draw them again
+		if (changed && viewValid) drawChanged();
+		changed = false;
+		int dx = r.x - viewX, dy = r.y - viewY;
+		if (!viewValid || Math.abs(dx) >= r.width || Math.abs(dy) >= r.height) {
+			drawView(r.x, r.y, r.width, r.height);
+		} else {
+			// Draw the columns and rows that have come into view
+			if (dx > 0) drawView(viewX + r.width, r.y, dx, r.height);
+			if (dx < 0) drawView(r.x, r.y, -dx, r.height);
+			if (dy > 0) drawView(r.x, viewY + r.height, r.width, dy);
+			if (dy < 0) drawView(r.x, r.y, r.width, -dy);
+		}
+		viewX = r.x;
+		viewY = r.y;
+		viewValid = true;
+	}
+
+	// Draws the parts of the view over chunks whose cells have changed since they were drawn
+	private void drawChanged() {
+		int w = view.getWidth(), h = view.getHeight();
+		int min_x = Math.floorDiv(viewX, CHUNK_PIXELS), min_y = Math.floorDiv(viewY, CHUNK_PIXELS);
+		int max_x = Math.floorDiv(viewX + w - 1, CHUNK_PIXELS), max_y = Math.floorDiv(viewY + h - 1, CHUNK_PIXELS);
+		int x1, y1, x2, y2;
+		Chunk c;
+		for (int cy = min_y; cy <= max_y; cy++) for (int cx = min_x; cx <= max_x; cx++) {
+			c = getChunk(cx, cy);
+			if (c == null || !c.changed) continue;
+			x1 = Math.max(cx * CHUNK_PIXELS, viewX);
+			y1 = Math.max(cy * CHUNK_PIXELS, viewY);
+			x2 = Math.min((cx + 1) * CHUNK_PIXELS, viewX + w);
+			y2 = Math.min((cy + 1) * CHUNK_PIXELS, viewY + h);
+			drawView(x1, y1, x2 - x1, y2 - y1);
+		}
+	}
+
+	// Draws an area of the world into the view, splitting it where it wraps around
+	private void drawView(int x, int y, int width, int height) {
+		int w = view.getWidth(), h = view.getHeight();
+		int bx = Math.floorMod(x, w), by = Math.floorMod(y, h);
+		int sw = Math.min(width, w - bx), sh = Math.min(height, h - by);
+		Graphics2D g = view.createGraphics();
+		g.setComposite(AlphaComposite.Src);
+		g.setBackground(CLEAR);
+		drawViewPiece(g, x, y, sw, sh, bx, by);
+		if (sw < width) drawViewPiece(g, x + sw, y, width - sw, sh, 0, by);
+		if (sh < height) drawViewPiece(g, x, y + sh, sw, height - sh, bx, 0);
+		if (sw < width && sh < height) drawViewPiece(g, x + sw, y + sh, width - sw, height - sh, 0, 0);
+		g.dispose();
+	}
+
+	// Clears an area of the view and draws the chunks of the world area that lands there
+	private void drawViewPiece(Graphics2D g, int x, int y, int width, int height, int bx, int by) {
+		g.setClip(bx, by, width, height);
+		g.clearRect(bx, by, width, height);
+		int min_x = Math.floorDiv(x, CHUNK_PIXELS);
+		int min_y = Math.floorDiv(y, CHUNK_PIXELS);
+		int max_x = Math.floorDiv(x + width - 1, CHUNK_PIXELS);
+		int max_y = Math.floorDiv(y + height - 1, CHUNK_PIXELS);
+		Chunk c;
+		for (int cy = min_y; cy <= max_y; cy++) for (int cx = min_x; cx <= max_x; cx++) {
+			c = getChunk(cx, cy);
+			if (c == null) continue;
+			c.changed = false;
+			// Let go of chunks that have been emptied
+			if (c.cells == null) {
+				chunks[(cy - minY) * this.width + (cx - minX)] = null;
+				continue;
+			}
+			if (c.image == null) bake(c);
+			baked.put(c, Boolean.TRUE);
+			g.drawImage(c.image, c.x * CHUNK_PIXELS - x + bx, c.y * CHUNK_PIXELS - y + by, null);
+		}
+	}
+
+	// Renders the captured tiles of a chunk into its image
+	private void bake(Chunk c) {
+		int[] cells = c.cells;
+		c.image = TileAtlas.createImage(CHUNK_PIXELS, CHUNK_PIXELS);
+		Graphics2D g = c.image.createGraphics();
+		int cell;
+		for (int i = 0; i < cells.length; i++) {
+			cell = cells[i];
+			if (cell == 0) continue;
+			g.drawImage(tileset.getTile(TileMap.getTextureX(cell), TileMap.getTextureY(cell), empty),
+					(i % CHUNK_SIZE) * Terrain.GRID_SIZE, (i / CHUNK_SIZE) * Terrain.GRID_SIZE, null);
+		}
+		g.dispose();
+	}
+
+	// Lays the chunks out again if the tile map has grown to cover more
+	private void align() {
+		int x1 = tiles.getMinChunkX(), y1 = tiles.getMinChunkY();
+		int w = tiles.getChunksAcross(), h = tiles.getChunksDown();
+		if (x1 == minX && y1 == minY && w == width && h == height) return;
+		Chunk[] moved = new Chunk[w * h];
+		for (Chunk c : chunks) {
+			if (c == null) continue;
+			if (c.x < x1 || c.y < y1 || c.x >= x1 + w || c.y >= y1 + h) {
+				baked.remove(c);
+				continue;
+			}
+			moved[(c.y - y1) * w + (c.x - x1)] = c;
+		}
+		this.chunks = moved;
+		this.minX = x1;
+		this.minY = y1;
+		this.width = w;
+		this.height = h;
+	}
+
+	// Returns the chunk at a position, or null if it hasn't been captured
+	private Chunk getChunk(int cx, int cy) {
+		if (cx < minX || cy < minY || cx >= minX + width || cy >= minY + height) return null;
+		return chunks[(cy - minY) * width + (cx - minX)];
+	}
+
+}
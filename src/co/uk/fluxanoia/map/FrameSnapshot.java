@@ -0,0 +1,164 @@
+package co.uk.fluxanoia.map;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+import co.uk.fluxanoia.graphics.DirtyRegion;
+import co.uk.fluxanoia.graphics.Drawable;
+import co.uk.fluxanoia.graphics.SpriteCache;
+import co.uk.fluxanoia.main.ErrorHandler;
+
+// The FrameSnapshot class, what the terrain looked like at the end of an update and the one
+// before, so frames can be drawn in between, held in arrays that are reused from one capture to the next
+public class FrameSnapshot {
+
+	// The amount of sprites room is made for at first
+	private static final int INITIAL_SPRITES = 16;
+
+	// The layer drawing the tiles, holding a copy of the chunks in view, or null if there are none
+	private ChunkedTileLayer tileLayer;
+	// The camera's position at the end of the last update and this one, and its size
+	private double prevCameraX, prevCameraY, cameraX, cameraY;
+	private int cameraWidth, cameraHeight;
+	// The camera's bounds between the two, reused each draw
+	private Rectangle camera;
+	// The amount of sprites
+	private int sprites;
+	// The cache each sprite is drawn from and its tile on the sheet
+	private SpriteCache[] caches;
+	private int[] tileX, tileY;
+	// The centre in the world and rotation of each sprite, at the end of the last update and this one
+	private double[] prevCentreX, prevCentreY, prevRotation, centreX, centreY, rotation;
+	// The position and size of each sprite's image about its centre
+	private int[] x, y, width, height;
+
+	// Constructs an empty FrameSnapshot
+	public FrameSnapshot() {
+		// Initialise values
+		this.tileLayer = null;
+		this.camera = new Rectangle();
+		this.sprites = 0;
+		this.caches = new SpriteCache[INITIAL_SPRITES];
+		this.tileX = new int[INITIAL_SPRITES];
+		this.tileY = new int[INITIAL_SPRITES];
+		this.prevCentreX = new double[INITIAL_SPRITES];
+		this.prevCentreY = new double[INITIAL_SPRITES];
+		this.prevRotation = new double[INITIAL_SPRITES];
+		this.centreX = new double[INITIAL_SPRITES];
+		this.centreY = new double[INITIAL_SPRITES];
+		this.rotation = new double[INITIAL_SPRITES];
+		this.x = new int[INITIAL_SPRITES];
+		this.y = new int[INITIAL_SPRITES];
+		this.width = new int[INITIAL_SPRITES];
+		this.height = new int[INITIAL_SPRITES];
+	}
+
+	// Clears the snapshot and records the camera and the tiles it can see
+	public void begin(ChunkedTileLayer tileLayer, Camera c) {
+		ErrorHandler.checkNull(c, "A FrameSnapshot was given a null camera.");
+		this.tileLayer = tileLayer;
+		this.prevCameraX = c.getPreviousX();
+		this.prevCameraY = c.getPreviousY();
+		this.cameraX = c.getX();
+		this.cameraY = c.getY();
+		this.cameraWidth = (int) c.getWidth();
+		this.cameraHeight = (int) c.getHeight();
+		// Copy the chunks the camera can see anywhere between its two positions
+		if (tileLayer != null) {
+			camera.setBounds((int) Math.floor(Math.min(prevCameraX, cameraX)) - 1,
+					(int) Math.floor(Math.min(prevCameraY, cameraY)) - 1,
+					(int) Math.ceil(Math.abs(cameraX - prevCameraX)) + cameraWidth + 2,
+					(int) Math.ceil(Math.abs(cameraY - prevCameraY)) + cameraHeight + 2);
+			tileLayer.capture(camera);
+		}
+		// Let go of the caches so old atlases can be collected
+		Arrays.fill(caches, 0, sprites, null);
+		this.sprites = 0;
+	}
+
+	// Adds a tile drawn rotated about a centre in the world, moving from where it was last update
+	public void addSprite(SpriteCache cache, int tileX, int tileY, double prevCentreX, double prevCentreY, double prevRotation,
+			double centreX, double centreY, double rotation, int x, int y, int width, int height) {
+		ErrorHandler.checkNull(cache, "A FrameSnapshot was given a null sprite cache.");
+		if (sprites == caches.length) grow();
+		this.caches[sprites] = cache;
+		this.tileX[sprites] = tileX;
+		this.tileY[sprites] = tileY;
+		this.prevCentreX[sprites] = prevCentreX;
+		this.prevCentreY[sprites] = prevCentreY;
+		this.prevRotation[sprites] = prevRotation;
+		this.centreX[sprites] = centreX;
+		this.centreY[sprites] = centreY;
+		this.rotation[sprites] = rotation;
+		this.x[sprites] = x;
+		this.y[sprites] = y;
+		this.width[sprites] = width;
+		this.height[sprites] = height;
+		sprites++;
+	}
+
+	// Doubles the room for sprites
+	private void grow() {
+		int n = caches.length * 2;
+		caches = Arrays.copyOf(caches, n);
+		tileX = Arrays.copyOf(tileX, n);
+		tileY = Arrays.copyOf(tileY, n);
+		prevCentreX = Arrays.copyOf(prevCentreX, n);
+		prevCentreY = Arrays.copyOf(prevCentreY, n);
+		prevRotation = Arrays.copyOf(prevRotation, n);
+		centreX = Arrays.copyOf(centreX, n);
+		centreY = Arrays.copyOf(centreY, n);
+		rotation = Arrays.copyOf(rotation, n);
+		x = Arrays.copyOf(x, n);
+		y = Arrays.copyOf(y, n);
+		width = Arrays.copyOf(width, n);
+		height = Arrays.copyOf(height, n);
+	}
+
+	// Draws the tiles and then the sprites, the given amount of the way from the last update to this one
+	public void draw(Graphics2D g, double alpha) {
+		camera.setBounds((int) blend(prevCameraX, cameraX, alpha), (int) blend(prevCameraY, cameraY, alpha),
+				cameraWidth, cameraHeight);
+		if (tileLayer != null) tileLayer.draw(g, camera);
+		for (int i = 0; i < sprites; i++) {
+			caches[i].draw(g, tileX[i], tileY[i],
+					blend(prevCentreX[i], centreX[i], alpha) - camera.x,
+					blend(prevCentreY[i], centreY[i], alpha) - camera.y,
+					blend(prevRotation[i], rotation[i], alpha), x[i], y[i], width[i], height[i]);
+		}
+	}
+
+	// Adds the areas drawn differently from one frame to the next until the next update,
+	// which is everything if the camera is moving, or else where each moving sprite passes
+	public void addBlendBounds(DirtyRegion r) {
+		ErrorHandler.checkNull(r, "A FrameSnapshot was given a null region.");
+		if (prevCameraX != cameraX || prevCameraY != cameraY) {
+			r.add(Drawable.drawBounds());
+			return;
+		}
+		double reach;
+		int x1, y1, x2, y2;
+		for (int i = 0; i < sprites; i++) {
+			if (prevCentreX[i] == centreX[i] && prevCentreY[i] == centreY[i] && prevRotation[i] == rotation[i]) continue;
+			// However the image is turned it stays within its farthest corner's distance of the centre
+			reach = Math.hypot(Math.max(Math.abs(x[i]), Math.abs(x[i] + width[i])),
+					Math.max(Math.abs(y[i]), Math.abs(y[i] + height[i]))) + 2;
+			x1 = (int) Math.floor(Math.min(prevCentreX[i], centreX[i]) - reach - cameraX);
+			y1 = (int) Math.floor(Math.min(prevCentreY[i], centreY[i]) - reach - cameraY);
+			x2 = (int) Math.ceil(Math.max(prevCentreX[i], centreX[i]) + reach - cameraX);
+			y2 = (int) Math.ceil(Math.max(prevCentreY[i], centreY[i]) + reach - cameraY);
+			r.add(x1, y1, x2 - x1, y2 - y1);
+		}
+	}
+
+	// Returns the value the given amount of the way from one to another
+	private static double blend(double from, double to, double alpha) {
+		if (alpha >= 1) return to;
+		return from + (to - from) * alpha;
+	}
+
+	// Returns the amount of sprites
+	public int getSprites() { return sprites; }
+
+}
@@ -0,0 +1,271 @@
+package co.uk.fluxanoia.map;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+import co.uk.fluxanoia.main.ErrorHandler;
+import co.uk.fluxanoia.main.ResourceManager;
+import co.uk.fluxanoia.map.Cell.CellType;
+import co.uk.fluxanoia.map.Tile.TileType;
+
+// The LevelCodec class, reads the text form of levels straight out of a buffer without
+// splitting it into strings, and writes it through a buffered channel
+public class LevelCodec {
+
+	// The separator between the parts of a cell and between cells
+	private static final byte PART_SEP = '_';
+	private static final byte CELL_SEP = ' ';
+	// The size of the buffer cells are written through
+	private static final int BUFFER_SIZE = 1 << 16;
+	// The most bytes a tile can take up once written
+	private static final int MAX_TILE_BYTES = 64;
+
+	// The ids of the cell and tile types as bytes, indexed by ordinal
+	private static final byte[][] CELL_IDS = new byte[CellType.values().length][];
+	private static final byte[][] TILE_IDS = new byte[TileType.values().length][];
+	static {
+		for (CellType ct : CellType.values()) CELL_IDS[ct.ordinal()] = ct.getID().getBytes(StandardCharsets.UTF_8);
+		for (TileType tt : TileType.values()) TILE_IDS[tt.ordinal()] = tt.getID().getBytes(StandardCharsets.UTF_8);
+	}
+
+	// The CellHandler interface, is given each cell as it's read
+	public interface CellHandler {
+		// Handles a tile, its type being null if it has none
+		public void tile(int x, int y, int textureX, int textureY, TileType type);
+		// Handles a cell that isn't a tile, with the data after its position
+		public void cell(CellType type, int x, int y, String data);
+	}
+
+	// Reads a text level file, handing each cell over in the order they're written; the file is read
+	// onto the heap rather than mapped, as the map tool may overwrite it straight after
+	public static void read(String path, CellHandler handler) {
+		ErrorHandler.checkNull(path, "The LevelCodec was given a null path.");
+		read(ResourceManager.readBytes(path), handler);
+	}
+	public static void read(ByteBuffer b, CellHandler handler) {
+		ErrorHandler.checkNull(b, "The LevelCodec was given a null buffer.");
+		ErrorHandler.checkNull(handler, "The LevelCodec was given a null handler.");
+		int i = b.position(), end = b.limit(), start, stop;
+		while (i < end) {
+			// Skip to the start of the next cell
+			if (isSeparator(b.get(i))) {
+				i++;
+				continue;
+			}
+			// Find the end of the cell, ignoring trailing underscores as splitting it would
+			start = i;
+			while (i < end && !isSeparator(b.get(i))) i++;
+			stop = i;
+			while (stop > start && b.get(stop - 1) == PART_SEP) stop--;
+			readCell(b, start, stop, handler);
+		}
+	}
+
+	// Reads a single cell between two positions, skipping it if it's invalid
+	private static void readCell(ByteBuffer b, int start, int end, CellHandler handler) {
+		// Break down the cell into its type, x, y and remaining data
+		int typeEnd = partEnd(b, start, end);
+		CellType type = (CellType) parseID(b, start, typeEnd, CELL_IDS, CellType.values());
+		// If there's insufficient arguments or an invalid type, skip
+		if (type == null || typeEnd == end) return;
+		int xEnd = partEnd(b, typeEnd + 1, end);
+		if (xEnd == end) return;
+		int yEnd = partEnd(b, xEnd + 1, end);
+		int x = parseInt(b, typeEnd + 1, xEnd);
+		int y = parseInt(b, xEnd + 1, yEnd);
+		int data = Math.min(yEnd + 1, end);
+		// Tiles are broken down further, the same way a Tile parses its data
+		if (type != CellType.TILE) {
+			handler.cell(type, x, y, decode(b, data, end));
+			return;
+		}
+		int textureX = -1, textureY = -1;
+		int partEnd = partEnd(b, data, end);
+		TileType tileType = (TileType) parseID(b, data, partEnd, TILE_IDS, TileType.values());
+		if (partEnd < end) {
+			data = partEnd + 1;
+			partEnd = partEnd(b, data, end);
+			textureX = parseInt(b, data, partEnd);
+		}
+		if (partEnd < end) {
+			data = partEnd + 1;
+			partEnd = partEnd(b, data, end);
+			textureY = parseInt(b, data, partEnd);
+		}
+		handler.tile(x, y, textureX, textureY, tileType);
+	}
+
+	// Returns where the part starting at a position ends
+	private static int partEnd(ByteBuffer b, int start, int end) {
+		while (start < end && b.get(start) != PART_SEP) start++;
+		return start;
+	}
+
+	// Returns the type whose id matches the bytes between two positions, or null if none do
+	private static Object parseID(ByteBuffer b, int start, int end, byte[][] ids, Object[] types) {
+		for (int i = 0; i < ids.length; i++) {
+			if (ids[i].length != end - start) continue;
+			int j = 0;
+			while (j < ids[i].length && ids[i][j] == b.get(start + j)) j++;
+			if (j == ids[i].length) return types[i];
+		}
+		return null;
+	}
+
+	// Parses the number between two positions, throwing as Integer.valueOf would if it's invalid
+	private static int parseInt(ByteBuffer b, int start, int end) {
+		int i = start;
+		boolean negative = false;
+		if (i < end && (b.get(i) == '-' || b.get(i) == '+')) negative = b.get(i++) == '-';
+		if (i == end) throw new NumberFormatException("For input string: \"" + decode(b, start, end) + "\"");
+		long value = 0;
+		byte c;
+		for (; i < end; i++) {
+			c = b.get(i);
+			if (c < '0' || c > '9') throw new NumberFormatException("For input string: \"" + decode(b, start, end) + "\"");
+			value = value * 10 + (c - '0');
+			if (value > (long) Integer.MAX_VALUE + 1)
+				throw new NumberFormatException("For input string: \"" + decode(b, start, end) + "\"");
+		}
+		if (negative) value = -value;
+		if (value > Integer.MAX_VALUE) throw new NumberFormatException("For input string: \"" + decode(b, start, end) + "\"");
+		return (int) value;
+	}
+
+	// Returns the text between two positions
+	private static String decode(ByteBuffer b, int start, int end) {
+		byte[] bytes = new byte[end - start];
+		for (int i = 0; i < bytes.length; i++) bytes[i] = b.get(start + i);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	// Returns whether a byte separates cells
+	private static boolean isSeparator(byte c) {
+		return c == CELL_SEP || c == '\n' || c == '\r';
+	}
+
+	// Writes cells to a text level file
+	public static void write(String path, Iterable<Cell> cells) {
+		ErrorHandler.checkNull(cells, "The LevelCodec was given a null set of cells.");
+		Writer w = new Writer(path);
+		for (Cell c : cells) w.writeCell(c);
+		w.close();
+	}
+
+	// The Writer class, writes cells to a text level file through a buffer, tiles being written
+	// digit by digit rather than built into strings
+	public static class Writer {
+
+		// The path being written to, and the channel to it
+		private String path;
+		private FileChannel channel;
+		// The bytes waiting to be written
+		private ByteBuffer buffer;
+		// The digits of the number being written, backwards
+		private byte[] digits;
+
+		// Constructs a Writer, emptying the file at the path
+		public Writer(String path) {
+			ErrorHandler.checkNull(path, "A LevelCodec Writer was given a null path.");
+			// Assign values
+			this.path = path;
+			// Initialise values
+			this.channel = ResourceManager.openFileChannel(path);
+			this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			this.digits = new byte[20];
+		}
+
+		// Writes a tile, in the form Cell.getCellData gives
+		public void writeTile(int x, int y, int textureX, int textureY, TileType type) {
+			if (buffer.remaining() < MAX_TILE_BYTES) flush();
+			put(CELL_IDS[CellType.TILE.ordinal()]);
+			buffer.put(PART_SEP);
+			putInt(x);
+			buffer.put(PART_SEP);
+			putInt(y);
+			if (type != null) {
+				buffer.put(PART_SEP);
+				put(TILE_IDS[type.ordinal()]);
+				buffer.put(PART_SEP);
+				putInt(textureX);
+				buffer.put(PART_SEP);
+				putInt(textureY);
+			}
+			buffer.put(CELL_SEP);
+		}
+
+		// Writes a cell, tiles being written without building their text
+		public void writeCell(Cell c) {
+			ErrorHandler.checkNull(c, "A LevelCodec Writer was given a null cell.");
+			if (c instanceof Tile) {
+				Tile t = (Tile) c;
+				writeTile(t.getCellX(), t.getCellY(), t.getTextureX(), t.getTextureY(), t.getType());
+			} else {
+				writeCell(c.getCellData());
+			}
+		}
+		// Writes the text form of a cell
+		public void writeCell(String cell) {
+			ErrorHandler.checkNull(cell, "A LevelCodec Writer was given a null cell string.");
+			byte[] bytes = cell.getBytes(StandardCharsets.UTF_8);
+			int i = 0, n;
+			while (i < bytes.length) {
+				if (!buffer.hasRemaining()) flush();
+				n = Math.min(buffer.remaining(), bytes.length - i);
+				buffer.put(bytes, i, n);
+				i += n;
+			}
+			if (!buffer.hasRemaining()) flush();
+			buffer.put(CELL_SEP);
+		}
+
+		// Ends the line, writes everything left and closes the file
+		public void close() {
+			byte[] end = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+			if (buffer.remaining() < end.length) flush();
+			put(end);
+			flush();
+			try {
+				channel.close();
+			} catch (Exception e) {
+				System.err.println("The file at path: " + path + ", could not be overwritten.");
+				e.printStackTrace();
+				System.exit(1);
+			}
+		}
+
+		// Writes the buffered bytes to the file
+		private void flush() {
+			buffer.flip();
+			try {
+				while (buffer.hasRemaining()) channel.write(buffer);
+			} catch (Exception e) {
+				System.err.println("The file at path: " + path + ", could not be overwritten.");
+				e.printStackTrace();
+				System.exit(1);
+			}
+			buffer.clear();
+		}
+
+		// Puts bytes and numbers into the buffer, which must have room for them
+		private void put(byte[] bytes) {
+			buffer.put(bytes);
+		}
+		private void putInt(int value) {
+			long v = value;
+			if (v < 0) {
+				buffer.put((byte) '-');
+				v = -v;
+			}
+			int n = 0;
+			do {
+				digits[n++] = (byte) ('0' + v % 10);
+				v /= 10;
+			} while (v > 0);
+			while (n > 0) buffer.put(digits[--n]);
+		}
+
+	}
+
+}
@@ -0,0 +1,263 @@
+package co.uk.fluxanoia.map;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import co.uk.fluxanoia.main.ErrorHandler;
+import co.uk.fluxanoia.main.GameContext;
+import co.uk.fluxanoia.main.ResourceManager;
+import co.uk.fluxanoia.map.Cell.CellType;
+import co.uk.fluxanoia.map.Tile.TileType;
+
+// The LevelFile class, reads and writes levels in a binary form that is mapped straight into memory,
+// and converts them to and from the text form the map tool saves
+public class LevelFile {
+
+	// Structure of binary level files, all values being big-endian ints
+	// Header:      MAGIC VERSION chunk_count other_count others_offset
+	// Chunk table: chunk_x chunk_y cells_offset, for each chunk
+	// Chunks:      CHUNK_SIZE * CHUNK_SIZE cells packed as TileMap holds them, for each chunk
+	// Others:      length bytes..., the UTF-8 text form of each cell that isn't a tile
+
+	// The ending of binary level files
+	public static final String EXTENSION = ".lvb";
+	// The number every binary level file starts with, "BLVL"
+	private static final int MAGIC = 0x424C564C;
+	// The version of the format written
+	private static final int VERSION = 1;
+	// The size of the header and of each chunk table entry in bytes
+	private static final int HEADER_SIZE = 20;
+	private static final int ENTRY_SIZE = 12;
+	// The amount of cells in a chunk
+	private static final int CHUNK_CELLS = TileMap.CHUNK_SIZE * TileMap.CHUNK_SIZE;
+
+	// The mapped file
+	private ByteBuffer buffer;
+	// The first chunk covered by the level and the amount of chunks covered across and down
+	private int minX, minY, width, height;
+	// Where the cells of each chunk start in the file, indexed by row then column, or 0 if it's empty
+	private int[] offsets;
+	// The text form of the cells that aren't tiles
+	private ArrayList<String> others;
+
+	// Constructs a LevelFile from a mapped file, reading its header, chunk table and other cells
+	private LevelFile(ByteBuffer b) {
+		this.buffer = b;
+		int chunkCount = b.getInt(8);
+		int otherCount = b.getInt(12);
+		int othersOffset = b.getInt(16);
+		if (chunkCount < 0 || otherCount < 0
+				|| (long) HEADER_SIZE + (long) chunkCount * (ENTRY_SIZE + CHUNK_CELLS * 4) > b.limit()
+				|| othersOffset < HEADER_SIZE || othersOffset > b.limit())
+			throw new IllegalArgumentException("A LevelFile was given a level with a broken header.");
+		// Find the chunks the level covers
+		int entry, cx, cy, x2 = 0, y2 = 0;
+		for (int i = 0; i < chunkCount; i++) {
+			entry = HEADER_SIZE + i * ENTRY_SIZE;
+			cx = b.getInt(entry);
+			cy = b.getInt(entry + 4);
+			if (i == 0 || cx < minX) minX = cx;
+			if (i == 0 || cy < minY) minY = cy;
+			if (i == 0 || cx > x2) x2 = cx;
+			if (i == 0 || cy > y2) y2 = cy;
+		}
+		this.width = (chunkCount == 0) ? 0 : x2 - minX + 1;
+		this.height = (chunkCount == 0) ? 0 : y2 - minY + 1;
+		if ((long) width * height > TileMap.MAX_CHUNKS)
+			throw new IllegalArgumentException("A LevelFile was given a level with chunks too far apart to hold.");
+		// Note where each chunk's cells are
+		this.offsets = new int[width * height];
+		int offset;
+		for (int i = 0; i < chunkCount; i++) {
+			entry = HEADER_SIZE + i * ENTRY_SIZE;
+			offset = b.getInt(entry + 8);
+			if (offset < HEADER_SIZE || offset % 4 != 0 || offset > b.limit() - CHUNK_CELLS * 4)
+				throw new IllegalArgumentException("A LevelFile was given a level with a broken chunk offset.");
+			offsets[(b.getInt(entry + 4) - minY) * width + (b.getInt(entry) - minX)] = offset;
+		}
+		// Read the cells that aren't tiles
+		this.others = new ArrayList<>();
+		ByteBuffer d = b.duplicate();
+		d.position(othersOffset);
+		int length;
+		byte[] bytes;
+		for (int i = 0; i < otherCount; i++) {
+			length = d.getInt();
+			if (length < 0 || length > d.remaining())
+				throw new IllegalArgumentException("A LevelFile was given a level with a broken cell.");
+			bytes = new byte[length];
+			d.get(bytes);
+			others.add(new String(bytes, StandardCharsets.UTF_8));
+		}
+	}
+
+	// Returns whether a path is of a binary level file
+	public static boolean isBinary(String path) {
+		ErrorHandler.checkNull(path, "The LevelFile was given a null path.");
+		return path.endsWith(EXTENSION);
+	}
+
+	// Maps a binary level file into memory, returning null if it isn't one
+	public static LevelFile open(String path) {
+		ErrorHandler.checkNull(path, "The LevelFile was given a null path.");
+		ByteBuffer b = ResourceManager.mapFile(path);
+		if (b.limit() < HEADER_SIZE || b.getInt(0) != MAGIC || b.getInt(4) != VERSION) return null;
+		return new LevelFile(b);
+	}
+
+	// Reads a binary level file into tiles and the rest of the cells, returning false if it isn't one
+	public static boolean read(String path, TileMap tiles, ArrayList<Cell> cells,
+			GameContext context, Terrain terrain) {
+		ErrorHandler.checkNull(tiles, "The LevelFile was given a null tile map.");
+		LevelFile level = open(path);
+		if (level == null) return false;
+		level.readTiles(tiles);
+		level.readCells(cells, context, terrain);
+		return true;
+	}
+
+	// Reads every chunk of the level into tiles
+	public void readTiles(TileMap tiles) {
+		ErrorHandler.checkNull(tiles, "The LevelFile was given a null tile map.");
+		if (width > 0) tiles.cover(minX, minY, minX + width - 1, minY + height - 1);
+		for (int cy = minY; cy < minY + height; cy++) for (int cx = minX; cx < minX + width; cx++) {
+			if (hasChunk(cx, cy)) tiles.putChunk(cx, cy, readChunk(cx, cy));
+		}
+	}
+
+	// Reads the cells that aren't tiles
+	public void readCells(ArrayList<Cell> cells, GameContext context, Terrain terrain) {
+		ErrorHandler.checkNull(cells, "The LevelFile was given a null set of cells.");
+		ErrorHandler.checkNull(context, "The LevelFile was given a null context.");
+		ErrorHandler.checkNull(terrain, "The LevelFile was given a null terrain.");
+		CellIndex index = new CellIndex();
+		for (String s : others) LevelReader.readCell(index, context, terrain, s);
+		cells.clear();
+		for (Cell c : index) cells.add(c);
+	}
+
+	// Returns whether the level has tiles in a chunk
+	public boolean hasChunk(int cx, int cy) {
+		if (cx < minX || cy < minY || cx >= minX + width || cy >= minY + height) return false;
+		return offsets[(cy - minY) * width + (cx - minX)] != 0;
+	}
+
+	// Copies the packed cells of a chunk straight out of the mapped file, or returns null if it's empty,
+	// which can be done from any thread
+	public int[] readChunk(int cx, int cy) {
+		if (!hasChunk(cx, cy)) return null;
+		int[] cells = new int[CHUNK_CELLS];
+		IntBuffer ints = buffer.duplicate().asIntBuffer();
+		ints.position(offsets[(cy - minY) * width + (cx - minX)] / 4);
+		ints.get(cells);
+		return cells;
+	}
+
+	// Returns the first chunk covered by the level and the amount of chunks covered across and down
+	public int getMinChunkX() { return minX; }
+	public int getMinChunkY() { return minY; }
+	public int getChunksAcross() { return width; }
+	public int getChunksDown() { return height; }
+
+	// Writes tiles and the text form of the rest of the cells to a binary level file
+	public static void write(String path, TileMap tiles, ArrayList<String> others) {
+		ErrorHandler.checkNull(path, "The LevelFile was given a null path.");
+		ErrorHandler.checkNull(tiles, "The LevelFile was given a null tile map.");
+		ErrorHandler.checkNull((Object) others, "The LevelFile was given a null array list of cells.");
+		ErrorHandler.checkNull(others, "The LevelFile was given a null cell.");
+		// Work out the size of the file
+		int chunkCount = 0;
+		for (int cy = 0; cy < tiles.getChunksDown(); cy++) for (int cx = 0; cx < tiles.getChunksAcross(); cx++) {
+			if (tiles.getChunk(tiles.getMinChunkX() + cx, tiles.getMinChunkY() + cy) != null) chunkCount++;
+		}
+		byte[][] encoded = new byte[others.size()][];
+		int othersOffset = HEADER_SIZE + chunkCount * (ENTRY_SIZE + CHUNK_CELLS * 4);
+		int size = othersOffset;
+		for (int i = 0; i < encoded.length; i++) {
+			encoded[i] = others.get(i).getBytes(StandardCharsets.UTF_8);
+			size += 4 + encoded[i].length;
+		}
+		ByteBuffer b = ByteBuffer.allocate(size);
+		// Write the header
+		b.putInt(MAGIC).putInt(VERSION).putInt(chunkCount).putInt(others.size()).putInt(othersOffset);
+		// Write the chunk table and the chunks after it
+		int offset = HEADER_SIZE + chunkCount * ENTRY_SIZE;
+		int[] cells;
+		for (int cy = tiles.getMinChunkY(); cy < tiles.getMinChunkY() + tiles.getChunksDown(); cy++) {
+			for (int cx = tiles.getMinChunkX(); cx < tiles.getMinChunkX() + tiles.getChunksAcross(); cx++) {
+				cells = tiles.getChunk(cx, cy);
+				if (cells == null) continue;
+				b.putInt(cx).putInt(cy).putInt(offset);
+				for (int i = 0; i < CHUNK_CELLS; i++) b.putInt(offset + i * 4, cells[i]);
+				offset += CHUNK_CELLS * 4;
+			}
+		}
+		// Write the cells that aren't tiles
+		b.position(othersOffset);
+		for (byte[] e : encoded) b.putInt(e.length).put(e);
+		b.flip();
+		ResourceManager.overwriteFile(path, b);
+	}
+
+	// Converts a level file from one form to the other, chosen by the ending of the first
+	public static void convert(String src, String dest) {
+		ErrorHandler.checkNull(src, "The LevelFile was given a null source path.");
+		ErrorHandler.checkNull(dest, "The LevelFile was given a null destination path.");
+		TileMap tiles = new TileMap();
+		if (isBinary(src)) {
+			LevelFile level = open(src);
+			if (level == null)
+				throw new IllegalArgumentException("A LevelFile was given a file that isn't a binary level.");
+			level.readTiles(tiles);
+			writeText(dest, tiles, level.others);
+		} else {
+			ArrayList<String> others = new ArrayList<>();
+			readText(src, tiles, others);
+			write(dest, tiles, others);
+		}
+	}
+
+	// Reads a text level file into tiles and the text form of the rest of the cells
+	private static void readText(String path, final TileMap tiles, final ArrayList<String> others) {
+		// The cells that aren't tiles, which win their cell if they come first like tiles do
+		final HashSet<Long> taken = new HashSet<>();
+		LevelCodec.read(path, new LevelCodec.CellHandler() {
+			public void tile(int x, int y, int textureX, int textureY, TileType type) {
+				if (!taken.contains(key(x, y))) tiles.add(x, y, textureX, textureY, type);
+			}
+			public void cell(CellType type, int x, int y, String data) {
+				if (tiles.contains(x, y) || !taken.add(key(x, y))) return;
+				others.add(type.getID() + "_" + x + "_" + y + (data.equals("") ? "" : "_" + data));
+			}
+		});
+	}
+
+	// Writes tiles and the text form of the rest of the cells to a text level file
+	private static void writeText(String path, TileMap tiles, ArrayList<String> others) {
+		LevelCodec.Writer w = new LevelCodec.Writer(path);
+		int[] cells;
+		for (int cy = tiles.getMinChunkY(); cy < tiles.getMinChunkY() + tiles.getChunksDown(); cy++) {
+			for (int cx = tiles.getMinChunkX(); cx < tiles.getMinChunkX() + tiles.getChunksAcross(); cx++) {
+				cells = tiles.getChunk(cx, cy);
+				if (cells == null) continue;
+				for (int i = 0; i < CHUNK_CELLS; i++) {
+					if (cells[i] == 0) continue;
+					w.writeTile(cx * TileMap.CHUNK_SIZE + (i & (TileMap.CHUNK_SIZE - 1)),
+							cy * TileMap.CHUNK_SIZE + (i >> TileMap.CHUNK_SHIFT),
+							TileMap.getTextureX(cells[i]), TileMap.getTextureY(cells[i]), TileMap.getType(cells[i]));
+				}
+			}
+		}
+		for (String s : others) w.writeCell(s);
+		w.close();
+	}
+
+	// Returns the key of a cell position
+	private static long key(int x, int y) {
+		return ((long) x << 32) | (y & 0xFFFFFFFFL);
+	}
+
+}
@@ -0,0 +1,96 @@
+package co.uk.fluxanoia.map;
+
+import java.util.ArrayList;
+
+import co.uk.fluxanoia.main.ErrorHandler;
+import co.uk.fluxanoia.main.GameContext;
+import co.uk.fluxanoia.map.Cell.CellType;
+import co.uk.fluxanoia.map.Tile.TileType;
+
+// The LevelReader class, reads the cells of text level files, kept apart from the map tool
+// so the game can load levels without anything to do with editing them
+public class LevelReader {
+
+	// Reads in a level file and converts it to an array of cells
+	public static boolean readFile(ArrayList<Cell> cells, GameContext context, Terrain terrain, String path) {
+		ErrorHandler.checkNull(cells, "The LevelReader was given a null set of cells.");
+		CellIndex index = new CellIndex();
+		if (!readFile(index, context, terrain, path)) return false;
+		cells.clear();
+		for (Cell c : index) cells.add(c);
+		return true;
+	}
+	public static boolean readFile(final CellIndex cells, final GameContext context, final Terrain terrain, String path) {
+		ErrorHandler.checkNull(cells, "The LevelReader was given a null set of cells.");
+		ErrorHandler.checkNull(context, "The LevelReader was given a null context.");
+		ErrorHandler.checkNull(terrain, "The LevelReader was given a null terrain.");
+		ErrorHandler.checkNull(path, "The LevelReader was given a null path.");
+		// We should now clear the input array
+		cells.clear();
+		// Add each cell as it's read
+		LevelCodec.read(path, new LevelCodec.CellHandler() {
+			public void tile(int x, int y, int textureX, int textureY, TileType type) {
+				cells.add(new Tile(x, y, textureX, textureY, type));
+			}
+			public void cell(CellType type, int x, int y, String data) {
+				addCell(cells, context, terrain, x, y, type, data);
+			}
+		});
+		return true;
+	}
+
+	// Reads a single cell from its string and adds it, returning false if it was skipped
+	static boolean readCell(CellIndex cells, GameContext context, Terrain terrain, String cell) {
+		String[] ids = splitCell(cell);
+		// If the cell couldn't be broken down, skip
+		if (ids == null) return false;
+		// Add the cell
+		return addCell(cells, context, terrain, Integer.valueOf(ids[1]), Integer.valueOf(ids[2]),
+				CellType.parse(ids[0]), ids[3]);
+	}
+
+	// Breaks a cell string down into its type, x, y and remaining data, or null if it's invalid
+	static String[] splitCell(String cell) {
+		ErrorHandler.checkNull(cell, "The LevelReader was given a null cell string.");
+		// Break down the cell
+		String[] ids = cell.split("_");
+		// If there's insufficient arguments or an invalid type, skip
+		if (ids.length < 3 || CellType.parse(ids[0]) == null) return null;
+		// Load the remaining data into a string
+		String data = "";
+		if (ids.length > 3) {
+			data = ids[3];
+			for (int j = 4; j < ids.length; j++) data += "_" + ids[j];
+		}
+		return new String[] { ids[0], ids[1], ids[2], data };
+	}
+
+	// Adds a new cell
+	static boolean addCell(CellIndex cells, GameContext context, Terrain terrain, int x, int y, CellType type, String heldData) {
+		ErrorHandler.checkNull(cells, "The LevelReader was given a null set of cells.");
+		ErrorHandler.checkNull(context, "The LevelReader was given a null context.");
+		ErrorHandler.checkNull(terrain, "The LevelReader was given a null terrain.");
+		ErrorHandler.checkNull(type, "The LevelReader was given a null cell type.");
+		ErrorHandler.checkNull(heldData, "The LevelReader was given null cell data.");
+		if (cells.get(x, y) != null) return false;
+		switch (type) {
+		case TILE:
+			Tile t = new Tile(x, y, -1, -1, null);
+			t.parseData(heldData);
+			cells.add(t);
+			break;
+		case TRIGGER:
+			Trigger tr = new Trigger(context, terrain, x, y, null, null);
+			tr.parseData(heldData);
+			cells.add(tr);
+			break;
+		case PLAYER_SPAWN:
+			PlayerSpawn ps = new PlayerSpawn(x, y);
+			ps.parseData(heldData);
+			cells.add(ps);
+			break;
+		}
+		return true;
+	}
+
+}
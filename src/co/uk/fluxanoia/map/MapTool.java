@@ -5,6 +5,7 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
@@ -14,10 +15,11 @@ import javax.swing.JFrame;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 
-import com.sun.glass.events.KeyEvent;
-
+import co.uk.fluxanoia.graphics.DirtyRegion;
 import co.uk.fluxanoia.graphics.Display;
+import co.uk.fluxanoia.graphics.Drawable;
 import co.uk.fluxanoia.graphics.GridBackground;
+import co.uk.fluxanoia.graphics.TileAtlas;
 import co.uk.fluxanoia.main.ErrorHandler;
 import co.uk.fluxanoia.main.GameMode;
 import co.uk.fluxanoia.main.Main;
@@ -64,6 +66,8 @@ public class MapTool extends GameMode {
 	private Font font;
 	// Whether the tool should redraw or not
 	private boolean redraw;
+	// The area that needs redrawing, handed to the display
+	private DirtyRegion clipBounds;
 	// The display for the app
 	private Display display;
 	// The camera
@@ -73,9 +77,21 @@ public class MapTool extends GameMode {
 	// Whether the map tool is closed or not
 	private boolean closed;
 	// The tileset and empty texture
-	private BufferedImage tileset, empty;
-	// The array of cells and cells awaiting adding
-	private ArrayList<Cell> cells;
+	private TileAtlas tileset;
+	private BufferedImage empty;
+	// The cells, found by their position
+	private CellIndex cells;
+	// What the tool is drawn from, copied by capture
+	private ArrayList<Cell> drawnCells;
+	// The cells and the amount of changes to them when the cells in view were last copied
+	private CellIndex drawnIndex;
+	private int drawnModCount;
+	private Rectangle drawnCamera;
+	private double drawnCameraX, drawnCameraY;
+	private int drawnWidth, drawnHeight;
+	private int drawnHoveredX, drawnHoveredY, drawnMouseX, drawnMouseY, drawnNotifyAlpha;
+	private String drawnCellType, drawnHeldData, drawnNotifyMessage, drawnHoverType;
+	private String[] drawnHoverInfo;
 
 	// Constructs a MapTool
 	public MapTool(Display display) {
@@ -87,6 +103,7 @@ public class MapTool extends GameMode {
 		this.cellType = 0;
 		this.heldData = "";
 		this.redraw = true;
+		this.clipBounds = new DirtyRegion();
 		this.closed = false;
 		this.display_help = false;
 		this.font = new Font("Consolas", Font.PLAIN, FONT_SIZE);
@@ -101,9 +118,11 @@ public class MapTool extends GameMode {
 		// Assign values
 		this.display = display;
 		// Set the tool up for map creation
-		this.cells = new ArrayList<>();
+		this.cells = new CellIndex();
+		this.drawnCells = new ArrayList<>();
 		this.empty = display.getResourceManager().getImage("res\\game\\empty.png");
-		this.tileset = display.getResourceManager().getImage("res\\game\\tileset.png");
+		this.tileset = display.getResourceManager().getAtlas("res\\game\\tileset.png", Terrain.GRID_SIZE, Terrain.GRID_SIZE);
+		this.capture();
 		// Set up the documentation window
 		this.compileDocumentation();
 	}
@@ -137,8 +156,8 @@ public class MapTool extends GameMode {
 		}
 		// Reading
 		if (readQuery.dropPressed()) {
-			ArrayList<Cell> input = new ArrayList<>();
-			redraw |= readFile(input, display, terrain, "res\\stages\\" + readQuery.getText() + ".level");
+			CellIndex input = new CellIndex();
+			redraw |= LevelReader.readFile(input, display, terrain, "res\\stages\\" + readQuery.getText() + ".level");
 			if (input != null) {
 				cells = input;
 				notify("Read the file " + readQuery.getText() + ".level");
@@ -155,12 +174,60 @@ public class MapTool extends GameMode {
 		redraw |= notifyTween.dropMoved();
 	}
 
-	// Draws the map tool
+	// Copies the cells, camera, hovered cell and text the tool is drawn with
+	public void capture() {
+		Rectangle view = camera.getBounds();
+		if (cells != drawnIndex || cells.getModCount() != drawnModCount || !view.equals(drawnCamera)) {
+			captureCells(view);
+			drawnIndex = cells;
+			drawnModCount = cells.getModCount();
+		}
+		drawnCamera = view;
+		drawnWidth = (int) Math.ceil(camera.getWidth());
+		drawnHeight = (int) Math.ceil(camera.getHeight());
+		drawnCameraX = camera.getX();
+		drawnCameraY = camera.getY();
+		drawnHoveredX = hovered_x;
+		drawnHoveredY = hovered_y;
+		drawnMouseX = display.getListener().getMouseX();
+		drawnMouseY = display.getListener().getMouseY();
+		Cell hover = getCell(hovered_x, hovered_y);
+		drawnHoverType = (hover == null) ? null : hover.getCellType().getName();
+		drawnHoverInfo = (hover == null) ? null : hover.getInfo();
+		drawnCellType = CellType.values()[cellType].getName();
+		drawnHeldData = heldData;
+		drawnNotifyMessage = notifyMessage;
+		drawnNotifyAlpha = (int) notifyTween.value();
+	}
+
+	// Copies the cells in or touching the view, looking up each position in view or looking
+	// through every cell, whichever is fewer
+	private void captureCells(Rectangle view) {
+		drawnCells.clear();
+		int x1 = Math.floorDiv(view.x, Terrain.GRID_SIZE) - 1;
+		int y1 = Math.floorDiv(view.y, Terrain.GRID_SIZE) - 1;
+		int x2 = Math.floorDiv(view.x + view.width, Terrain.GRID_SIZE) + 1;
+		int y2 = Math.floorDiv(view.y + view.height, Terrain.GRID_SIZE) + 1;
+		Cell c;
+		if ((long) (x2 - x1 + 1) * (y2 - y1 + 1) < cells.size()) {
+			for (int y = y1; y <= y2; y++) for (int x = x1; x <= x2; x++) {
+				c = cells.get(x, y);
+				if (c != null) drawnCells.add(c);
+			}
+		} else {
+			for (int i = 0; i < cells.size(); i++) {
+				c = cells.get(i);
+				if (c.getCellX() >= x1 && c.getCellX() <= x2 && c.getCellY() >= y1 && c.getCellY() <= y2) drawnCells.add(c);
+			}
+		}
+	}
+
+	// Draws the map tool as it was last captured
 	public void draw(Graphics2D g1) {
 		// Create the image to draw to
 		BufferedImage drawImage = new BufferedImage(
-				(int) Math.ceil(camera.getWidth()),
-				(int) Math.ceil(camera.getHeight()),
+				drawnWidth,
+				drawnHeight,
 				BufferedImage.TYPE_INT_ARGB);
 		Graphics2D g = (Graphics2D) drawImage.getGraphics();
 		// Draw a plain background
@@ -168,12 +235,12 @@ public class MapTool extends GameMode {
 		g.fillRect(0, 0, drawImage.getWidth(), drawImage.getHeight());
 		// Some necessary variables
 		int tx, ty;
-		Rectangle r = camera.getBounds();
+		Rectangle r = drawnCamera;
 		// For all the cells in cells...
-		for (Cell c : new ArrayList<Cell>(cells)) {
+		for (Cell c : drawnCells) {
 			// Get the positions releative to the camera position
-			tx = (int) (c.getX() - camera.getX());
-			ty = (int) (c.getY() - camera.getY());
+			tx = (int) (c.getX() - drawnCameraX);
+			ty = (int) (c.getY() - drawnCameraY);
 			// If it's off the camera, don't draw
 			if (tx > drawImage.getWidth()  || tx + Terrain.GRID_SIZE < 0) continue;
 			if (ty > drawImage.getHeight() || ty + Terrain.GRID_SIZE < 0) continue;
@@ -182,7 +249,7 @@ public class MapTool extends GameMode {
 			// If it's a tile...
 			case TILE:
 				// Split the data for tileset info
-				((Tile) c).draw(g, r, ResourceManager.getTile(tileset, empty, c.getTextureX(), c.getTextureY(), Terrain.GRID_SIZE));
+				((Tile) c).draw(g, r, tileset.getTile(c.getTextureX(), c.getTextureY(), empty));
 				break;
 			case TRIGGER:
 				// Fill the trigger in
@@ -199,8 +266,8 @@ public class MapTool extends GameMode {
 		// Draw over the hovered cell
 		g.setColor(new Color(255, 255, 255, 128));
 		g.fillRect(
-				(int) (hovered_x * Terrain.GRID_SIZE - camera.getX()), 
-				(int) (hovered_y * Terrain.GRID_SIZE - camera.getY()),
+				(int) (drawnHoveredX * Terrain.GRID_SIZE - drawnCameraX), 
+				(int) (drawnHoveredY * Terrain.GRID_SIZE - drawnCameraY),
 				Terrain.GRID_SIZE, Terrain.GRID_SIZE);
 		// Draw the image
 		g1.drawImage(drawImage, 0, 0, Main.DRAW_WIDTH, Main.DRAW_HEIGHT, null);
@@ -209,31 +276,30 @@ public class MapTool extends GameMode {
 		g1.setColor(Color.BLACK);
 		g1.setFont(font);
 		// Draw the x and y values
-		g1.drawString("X: " + hovered_x, 
-				(int) (display.getListener().getMouseX() + 10 + TEXT_BUFFER),
-				(int) (display.getListener().getMouseY() + FONT_SIZE));
-		g1.drawString("Y: " + hovered_y, 
-				(int) (display.getListener().getMouseX() + 10 + TEXT_BUFFER),
-				(int) (display.getListener().getMouseY() + FONT_SIZE * 2));
+		g1.drawString("X: " + drawnHoveredX, 
+				(int) (drawnMouseX + 10 + TEXT_BUFFER),
+				(int) (drawnMouseY + FONT_SIZE));
+		g1.drawString("Y: " + drawnHoveredY, 
+				(int) (drawnMouseX + 10 + TEXT_BUFFER),
+				(int) (drawnMouseY + FONT_SIZE * 2));
 		// Draw the cell info
-		Cell hover = getCell(hovered_x, hovered_y);
-		if (hover != null) {
+		if (drawnHoverType != null) {
 			// Draw the cell data
-			g1.drawString("Type: " + hover.getCellType().getName(),
-					(int) (display.getListener().getMouseX() + 10 + TEXT_BUFFER),
-					(int) (display.getListener().getMouseY() + FONT_SIZE * 3));
-			String[] info = hover.getInfo();
+			g1.drawString("Type: " + drawnHoverType,
+					(int) (drawnMouseX + 10 + TEXT_BUFFER),
+					(int) (drawnMouseY + FONT_SIZE * 3));
+			String[] info = drawnHoverInfo;
 			for (int i = 0; i < info.length; i++) g1.drawString(info[i], 
-					(int) (display.getListener().getMouseX() + 10 + TEXT_BUFFER),
-					(int) (display.getListener().getMouseY() + FONT_SIZE * (4 + i)));
+					(int) (drawnMouseX + 10 + TEXT_BUFFER),
+					(int) (drawnMouseY + FONT_SIZE * (4 + i)));
 		}
 		// Draw the data and type
-		g1.drawString("Type: " + CellType.values()[cellType].getName(), TEXT_BUFFER, FONT_SIZE);
-		g1.drawString("Data: " + heldData, TEXT_BUFFER, FONT_SIZE * 2);
+		g1.drawString("Type: " + drawnCellType, TEXT_BUFFER, FONT_SIZE);
+		g1.drawString("Data: " + drawnHeldData, TEXT_BUFFER, FONT_SIZE * 2);
 		// Draw the notification
-		if (notifyTween.value() != 0) {
-			g1.setColor(new Color(0, 0, 0, (int) notifyTween.value()));
-			g1.drawString(notifyMessage, Main.DRAW_WIDTH - (TEXT_BUFFER + g1.getFontMetrics().stringWidth(notifyMessage)),
+		if (drawnNotifyAlpha != 0) {
+			g1.setColor(new Color(0, 0, 0, drawnNotifyAlpha));
+			g1.drawString(drawnNotifyMessage, Main.DRAW_WIDTH - (TEXT_BUFFER + g1.getFontMetrics().stringWidth(drawnNotifyMessage)),
 					FONT_SIZE);
 		}
 	}
@@ -259,7 +325,7 @@ public class MapTool extends GameMode {
 				/ (double) Terrain.GRID_SIZE);
 		// Manage mouse presses
 		if (this.display.getListener().isMouseHeld(MouseEvent.BUTTON1)) {
-			redraw |= addCell(cells, display, terrain, hovered_x, hovered_y, CellType.values()[cellType], heldData);
+			redraw |= LevelReader.addCell(cells, display, terrain, hovered_x, hovered_y, CellType.values()[cellType], heldData);
 		}
 		// Manages key presses
 		// Displaying help
@@ -287,8 +353,7 @@ public class MapTool extends GameMode {
 		}
 		// Deleting cells
 		if (this.display.getListener().isKeyHeld(KeyEvent.VK_SHIFT)) {
-			Cell c = getCell(hovered_x, hovered_y);
-			if (c != null) cells.remove(c);
+			cells.remove(hovered_x, hovered_y);
 			redraw = true;
 		}
 		// Copying cells
@@ -318,9 +383,8 @@ public class MapTool extends GameMode {
 		}
 		// Editting data/type
 		if (this.display.getListener().isKeyHeld(KeyEvent.VK_SPACE)) {
-			Cell c = getCell(hovered_x, hovered_y);
-			if (c != null) cells.remove(c);
-			addCell(cells, display, terrain, hovered_x, hovered_y, CellType.values()[cellType], heldData);
+			cells.remove(hovered_x, hovered_y);
+			LevelReader.addCell(cells, display, terrain, hovered_x, hovered_y, CellType.values()[cellType], heldData);
 			redraw = true;
 		}
 		// Write to file
@@ -337,94 +401,13 @@ public class MapTool extends GameMode {
 	public void saveToFile() {
 		// If there's no file name, stop
 		if (saveQuery.getText().equals("")) return;
-		// Initialise some variables
-		String s = "";
-		// For all the cells in cells...
-		for (Cell c : new ArrayList<Cell>(cells)) {
-			s += c.getCellData() + " ";
-		}
-		// Create the array to be written
-		ArrayList<String> ss = new ArrayList<>();
-		ss.add(s);
 		// Write to file
-		ResourceManager.overwriteFile("res\\stages\\" + saveQuery.getText() + ".level", ss);
+		String path = "res\\stages\\" + saveQuery.getText();
+		LevelCodec.write(path + ".level", cells);
+		// Convert the binary form again if there is one, so it isn't loaded over the edits
+		if (ResourceManager.fileExists(path + LevelFile.EXTENSION)) LevelFile.convert(path + ".level", path + LevelFile.EXTENSION);
 	}
 
-	// Reads in a level file and converts it to an array of cells
-	public static boolean readFile(ArrayList<Cell> cells, Display display, Terrain terrain, String path) {
-		ErrorHandler.checkNull(cells, "The MapTool was given a null set of cells.");
-		ErrorHandler.checkNull(display, "The MapTool was given a null display.");
-		ErrorHandler.checkNull(terrain, "The MapTool was given a null terrain.");
-		ErrorHandler.checkNull(path, "The MapTool was given a null path.");
-		// Variables to hold the cell data
-		int x, y;
-		String data;
-		CellType type;
-		// Variables to hold the input data
-		String[] cell, ids;
-		// The input data
-		ArrayList<String> input = ResourceManager.readFile(path);
-		// If there's no input, return null
-		if (input == null) return false;
-		// We should now clear the input array
-		cells.clear();
-		// For all the strings in the input
-		for (String s : input) {
-			// Split by spaces
-			cell = s.split(" ");
-			// For each cell
-			for (int i = 0; i < cell.length; i++) {
-				// Break down the cell
-				ids = cell[i].split("_");
-				// If there's insufficient arguments, skip
-				if (ids.length < 3) continue;
-				// Parse values
-				type = CellType.parse(ids[0]);
-				x = Integer.valueOf(ids[1]);
-				y = Integer.valueOf(ids[2]);
-				// If there's invalid values, skip
-				if (type == null) continue;
-				// Load the remaining data into a string
-				data = "";
-				if (ids.length > 3) {
-					data = ids[3];
-					for (int j = 4; j < ids.length; j++) data += "_" + ids[j];
-				}
-				// Add the cell
-				addCell(cells, display, terrain, x, y, type, data);
-			}
-		}
-		return true;
-	}
-
-	// Adds a new cell
-	private static boolean addCell(ArrayList<Cell> cells, Display display, Terrain terrain, int x, int y, CellType type, String heldData) {
-		ErrorHandler.checkNull(cells, "The MapTool was given a null set of cells.");
-		ErrorHandler.checkNull(display, "The MapTool was given a null display.");
-		ErrorHandler.checkNull(terrain, "The MapTool was given a null terrain.");
-		ErrorHandler.checkNull(type, "The MapTool was given a null cell type.");
-		ErrorHandler.checkNull(heldData, "The MapTool was given a null path.");
-		if (getCell(cells, x, y) != null) return false;
-		switch (type) {
-		case TILE:
-			Tile t = new Tile(x, y, -1, -1, null);
-			t.parseData(heldData);
-			cells.add(t);
-			break;
-		case TRIGGER:
-			Trigger tr = new Trigger(display, terrain, x, y, null, null);
-			tr.parseData(heldData);
-			cells.add(tr);
-			break;
-		case PLAYER_SPAWN:
-			PlayerSpawn ps = new PlayerSpawn(x, y);
-			ps.parseData(heldData);
-			cells.add(ps);
-			break;
-		}
-		return true;
-	}
-	
 	// Compiles the documentation window
 	private void compileDocumentation() {
 		documentation = new JFrame("Map editing documentation");
@@ -461,16 +444,7 @@ public class MapTool extends GameMode {
 	
 	// Returns the cell with position x, y
 	private Cell getCell(int x, int y) {
-		return getCell(cells, x, y);
-	}
-	// Returns the cell with position x, y in a given cell array
-	private static Cell getCell(ArrayList<Cell> cells, int x, int y) {
-		ErrorHandler.checkNull(cells, "The MapTool was given a null set of cells.");
-		for (Cell c : cells) {
-			if (c.getCellX() == x && c.getCellY() == y)
-				return c;
-		}
-		return null;
+		return cells.get(x, y);
 	}
 	
 	// Sets up a new notifying message
@@ -483,12 +457,21 @@ public class MapTool extends GameMode {
 	}
 
 	// Gets the clip bounds of the active layer
-	public Rectangle dropClipBounds() {
+	public DirtyRegion dropClipBounds() {
+		clipBounds.clear();
 		if (this.redraw) {
 			this.redraw = false;
-			return Display.drawBounds();
+			clipBounds.add(Drawable.drawBounds());
 		}
-		return new Rectangle(0, 0, 0, 0);
+		return clipBounds;
+	}
+
+	// Adds nothing, as the tool draws the same between updates
+	public void addBlendBounds(DirtyRegion r) {}
+
+	// Returns whether the tool needs redrawing
+	public boolean isDirty() {
+		return this.redraw;
 	}
 
 	// Returns whether the map tool is closed or not
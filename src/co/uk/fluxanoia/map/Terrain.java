@@ -3,34 +3,49 @@ package co.uk.fluxanoia.map;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
+import java.awt.event.KeyEvent;
+import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 
-import com.sun.glass.events.KeyEvent;
-
 import co.uk.fluxanoia.control.Controller;
 import co.uk.fluxanoia.control.Controller.InputType;
 import co.uk.fluxanoia.control.PlayerController;
 import co.uk.fluxanoia.entity.Entity;
 import co.uk.fluxanoia.entity.Entity.EntityIndex;
-import co.uk.fluxanoia.graphics.Display;
+import co.uk.fluxanoia.graphics.DirtyRegion;
 import co.uk.fluxanoia.graphics.Drawable;
 import co.uk.fluxanoia.graphics.GridBackground;
+import co.uk.fluxanoia.graphics.TileAtlas;
 import co.uk.fluxanoia.main.ErrorHandler;
+import co.uk.fluxanoia.main.GameContext;
 import co.uk.fluxanoia.main.Main;
+import co.uk.fluxanoia.main.Profiler;
 import co.uk.fluxanoia.main.ResourceManager;
+import co.uk.fluxanoia.main.Profiler.Phase;
+import co.uk.fluxanoia.map.Cell.CellType;
+import co.uk.fluxanoia.map.Tile.TileType;
 import co.uk.fluxanoia.map.Trigger.CameraMovement;
 import co.uk.fluxanoia.util.Tween.TweenType;
-import javafx.geometry.Point2D;
 
 // The Terrain class, implements all game logic
 public class Terrain extends Drawable {
 
 	// The size of the grid cells
 	public static final int GRID_SIZE = 32;
+	// How far past the camera the chunks of binary levels are loaded by default, in pixels
+	public static final int DEFAULT_STREAM_MARGIN = ChunkedTileLayer.CHUNK_PIXELS / 2;
+	// How far around where each entity has swept chunks are always loaded, in pixels, which must be
+	// more than an entity moves in an update
+	private static final int ENTITY_STREAM_MARGIN = GRID_SIZE * 2;
 
-	// The list of tiles
-	private ArrayList<Tile> tiles;
+	// The tiles and the layer drawing them
+	private TileMap tiles;
+	private ChunkedTileLayer tileLayer;
+	// The streamer loading the chunks of a binary level around the camera, or null if all are loaded
+	private ChunkStreamer streamer;
+	// How far past the camera chunks are loaded, in pixels
+	private int streamMargin;
 	// The list of triggers
 	private ArrayList<Trigger> triggers;
 	// The player spawn
@@ -40,83 +55,133 @@ public class Terrain extends Drawable {
 	private Entity player;
 	// The entities barring the player
 	private ArrayList<Entity> entities;
+	// The snapshot the terrain is drawn from, only touched by the render thread
+	private FrameSnapshot frame;
 
 	// The camera
 	private Camera camera;
-	// The display of the game
-	private Display display;
+	// The context of the game
+	private GameContext context;
 	// The background for the game
 	private GridBackground gridBackground;
 	// The camera's mode and scroll speed
 	private Point2D cameraScroll;
 	private CameraMovement cameraMode;
 	// The game's tileset and the empty texture
-	private BufferedImage tileset, empty;
+	private TileAtlas tileset;
+	private BufferedImage empty;
 
 	// Constructs a GameGrid
-	public Terrain(Display display, Camera camera, GridBackground gbg) {
+	public Terrain(GameContext context, Camera camera, GridBackground gbg) {
 		// Check for null values
-		ErrorHandler.checkNull(display, "A Terrain was given a null display.");
+		ErrorHandler.checkNull(context, "A Terrain was given a null context.");
 		ErrorHandler.checkNull(camera, "A Terrain was given a null camera.");
 		ErrorHandler.checkNull(gbg, "A Terrain was given a null grid background.");
 		// Assign values
 		this.gridBackground = gbg;
 		this.camera = camera;
-		this.display = display;
+		this.context = context;
 		// Initialise values
-		this.tiles = new ArrayList<>();
+		this.tiles = new TileMap();
 		this.triggers = new ArrayList<>();
 		this.entities = new ArrayList<>();
+		this.frame = new FrameSnapshot();
 		this.playerSpawn = null;
 		this.player = null;
-		this.empty = display.getResourceManager()
+		this.streamer = null;
+		this.streamMargin = DEFAULT_STREAM_MARGIN;
+		this.empty = context.getResourceManager()
 				.getImage("res\\game\\empty.png");
-		this.tileset = display.getResourceManager()
-				.getImage("res\\game\\tileset.png");
+		this.tileset = context.getResourceManager()
+				.getAtlas("res\\game\\tileset.png", Terrain.GRID_SIZE, Terrain.GRID_SIZE);
+		this.tileLayer = new ChunkedTileLayer(tiles, tileset, empty);
 	}
 
-	// Loads a level onto the grid
+	// Loads a level onto the grid, preferring its binary form unless the text form has been edited since
 	public void loadLevel(int i) {
+		String path = "res\\stages\\level" + i;
+		if (ResourceManager.fileExists(path + LevelFile.EXTENSION) && (!ResourceManager.fileExists(path + ".level")
+				|| ResourceManager.lastModified(path + LevelFile.EXTENSION) >= ResourceManager.lastModified(path + ".level")))
+			loadLevel(path + LevelFile.EXTENSION);
+		else loadLevel(path + ".level");
+	}
+	public void loadLevel(String path) {
+		ErrorHandler.checkNull(path, "A Terrain was given a null path.");
 		// Clear the current arrays
-		tiles.clear();
+		tiles = new TileMap();
+		streamer = null;
 		triggers.clear();
+		// Entities spawned by the last level's triggers don't belong in this one
+		entities.clear();
 		playerSpawn = null;
-		// Load in cells
+		// Load in cells, leaving the tiles of binary levels to be streamed in
 		ArrayList<Cell> cells = new ArrayList<>();
-		MapTool.readFile(cells, display, this, "res\\stages\\level" + i + ".level");
+		if (LevelFile.isBinary(path)) {
+			LevelFile level = LevelFile.open(path);
+			if (level == null) {
+				System.err.println("The file at path: " + path + ", is not a binary level.");
+				System.exit(1);
+			}
+			streamer = new ChunkStreamer(level, tiles, streamMargin);
+			level.readCells(cells, context, this);
+		} else {
+			// Read tiles straight into the tile map and the rest into cells, the first at a position winning
+			final CellIndex index = new CellIndex();
+			LevelCodec.read(path, new LevelCodec.CellHandler() {
+				public void tile(int x, int y, int textureX, int textureY, TileType type) {
+					if (index.get(x, y) == null) tiles.add(x, y, textureX, textureY, type);
+				}
+				public void cell(CellType type, int x, int y, String data) {
+					if (!tiles.contains(x, y)) LevelReader.addCell(index, context, Terrain.this, x, y, type, data);
+				}
+			});
+			for (Cell c : index) cells.add(c);
+		}
 		for (Cell c : cells) {
-			if (c instanceof Tile) tiles.add((Tile) c);
 			if (c instanceof Trigger) triggers.add((Trigger) c);
 			if (c instanceof PlayerSpawn) playerSpawn = (PlayerSpawn) c;
 		}
+		if (playerSpawn == null) {
+			System.err.println("The level at path: " + path + ", has no player spawn.");
+			System.exit(1);
+		}
+		this.tileLayer = new ChunkedTileLayer(tiles, tileset, empty);
 		// Set up the camera
 		camera.setPosition(0, 0, Main.DRAW_WIDTH, Main.DRAW_HEIGHT);
 		this.cameraMode = CameraMovement.FOLLOW;
 		// Set up the player
-		player = EntityIndex.getEntity(playerSpawn.getEntityIndex(), display, this,
+		player = EntityIndex.getEntity(playerSpawn.getEntityIndex(), context, this,
 				playerSpawn.getX() + Terrain.GRID_SIZE / 2,
 				playerSpawn.getY() + Terrain.GRID_SIZE / 2);
-		PlayerController c = new PlayerController(display.getListener());
+		PlayerController c = new PlayerController(context.getListener());
 		c.setKeyMap(InputType.UP, KeyEvent.VK_W);
 		c.setKeyMap(InputType.DOWN, KeyEvent.VK_S);
 		c.setKeyMap(InputType.LEFT, KeyEvent.VK_A);
 		c.setKeyMap(InputType.RIGHT, KeyEvent.VK_D);
 		player.setController(c);
+		// Load the chunks that are in view straight away
+		if (streamer != null) streamer.require(camera.getBounds());
+		this.stream();
 		// Allow redraw
-		this.pushClipBounds(Display.drawBounds());
+		this.pushClipBounds(Drawable.drawBounds());
 	}
 
 	// Updates the grid
 	public void update() {
+		long time = Profiler.start();
+		// Take on any chunks that have been streamed in
+		this.stream();
 		// Update the player
 		player.update();
 		this.pushClipBounds(player.dropClipBounds());
 		// Update entities
-		Rectangle cb;
-		for (Entity e : new ArrayList<Entity>(entities)) {
+		DirtyRegion cb;
+		Entity e;
+		for (int i = 0; i < entities.size(); i++) {
+			e = entities.get(i);
 			e.update();
 			cb = e.dropClipBounds();
-			if (cb.intersects(Display.drawBounds())) this.pushClipBounds(cb);
+			if (cb.intersects(Drawable.drawBounds())) this.pushClipBounds(cb);
 		}
 		// Update the camera
 		double x, y;
@@ -145,19 +210,41 @@ public class Terrain extends Drawable {
 			t.update();
 			t.activate();
 		}
+		Profiler.record(Phase.TERRAIN_UPDATE, time);
+	}
+
+	// Streams chunks in and out around the camera, making sure those around every entity are loaded
+	private void stream() {
+		if (streamer == null) return;
+		streamer.update(camera.getBounds());
+		require(player);
+		for (int i = 0; i < entities.size(); i++) require(entities.get(i));
+	}
+	// Loads the chunks an entity swept through in its last update, and far enough past them
+	// to cover its next one
+	private void require(Entity e) {
+		Rectangle r = e.getHitbox().union(e.getPreviousHitbox());
+		r.grow(ENTITY_STREAM_MARGIN, ENTITY_STREAM_MARGIN);
+		streamer.require(r);
+	}
+
+	// Captures the tiles, camera and entities into the snapshot drawn from
+	public void capture() {
+		frame.begin(tileLayer, camera);
+		if (player != null) player.capture(frame);
+		for (int i = 0; i < entities.size(); i++) entities.get(i).capture(frame);
+	}
+
+	// Adds the areas of the captured snapshot drawn differently between updates
+	public void addBlendBounds(DirtyRegion r) {
+		frame.addBlendBounds(r);
 	}
 
-	// Draws the grid
+	// Draws the captured snapshot of the grid, blended from the update before
 	public void draw(Graphics2D g) {
-		Rectangle r = camera.getBounds();
-		for (Tile t : new ArrayList<Tile>(tiles)) {
-			t.draw(g, r, ResourceManager.getTile(tileset, empty,
-					t.getTextureX(), t.getTextureY(), Terrain.GRID_SIZE));
-		}
-		if (player != null) player.draw(g);
-		for (Entity e : new ArrayList<Entity>(entities)) {
-			e.draw(g);
-		}
+		long time = Profiler.start();
+		frame.draw(g, context.getInterpolation());
+		Profiler.add(Phase.TERRAIN_DRAW, time);
 	}
 	
 	// Pushes a background change
@@ -180,23 +267,47 @@ public class Terrain extends Drawable {
 	// Adds an entity
 	public void addEntity(EntityIndex ei, Controller c, int x, int y) {
 		ErrorHandler.checkNull(ei, "A Terrain was given a null entity index.");
-		Entity e = EntityIndex.getEntity(ei, display, this, x, y);
+		Entity e = EntityIndex.getEntity(ei, context, this, x, y);
 		if (e == null) return;
 		e.setController(c);
 		entities.add(e);
 	}
 
+	// Sets the controller of the player
+	public void setPlayerController(Controller c) {
+		player.setController(c);
+	}
+
+	// Replaces the tiles of the terrain
+	public void setTiles(TileMap tiles) {
+		ErrorHandler.checkNull(tiles, "A Terrain was given a null tile map.");
+		this.tiles = tiles;
+		this.streamer = null;
+		this.tileLayer = new ChunkedTileLayer(tiles, tileset, empty);
+		this.pushClipBounds(Drawable.drawBounds());
+	}
+
+	// Sets how far past the camera the chunks of binary levels are loaded, in pixels
+	public void setStreamMargin(int margin) {
+		if (margin < 0) throw new IllegalArgumentException("A Terrain was given a negative stream margin.");
+		this.streamMargin = margin;
+		if (streamer != null) streamer.setMargin(margin);
+	}
+
 	// Returns the camera
 	public Camera getCamera() {
 		return camera;
 	}
 	
 	// Returns the tiles
-	public ArrayList<Tile> getTiles() {
+	public TileMap getTiles() {
 		return tiles;
 	}
 	
 	// Returns the player
+	public Entity getPlayer() {
+		return player;
+	}
 	public Rectangle getPlayerHitbox() {
 		return player.getHitbox();
 	}
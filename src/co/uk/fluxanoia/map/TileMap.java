@@ -0,0 +1,249 @@
+package co.uk.fluxanoia.map;
+
+import java.util.ArrayList;
+
+import co.uk.fluxanoia.main.ErrorHandler;
+import co.uk.fluxanoia.map.Tile.TileType;
+
+// The TileMap class, holds the tiles of a level as packed numbers in square chunks of cells,
+// only making Tile objects when one is asked for
+public class TileMap {
+
+	// The width and height of a chunk in cells, and its power of two
+	public static final int CHUNK_SHIFT = 4;
+	public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	// The largest texture index that can be held
+	public static final int MAX_TEXTURE = (1 << 14) - 2;
+	// The most chunks the map can cover, so tiles far apart can't use up the memory
+	static final int MAX_CHUNKS = 1 << 22;
+
+	// --- Each cell is packed as: present (1 bit), type (2 bits), texture x (14 bits), texture y (14 bits)
+	// The bit saying the cell holds a tile
+	private static final int PRESENT = 1 << 30;
+	// The position and mask of the tile type, stored as none, COLLIDE or NO_COLLIDE
+	private static final int TYPE_SHIFT = 28;
+	private static final int TYPE_MASK = 3;
+	private static final int NO_TYPE = 0, COLLIDE = 1, NO_COLLIDE = 2;
+	// The position and mask of the texture indices, stored one higher so -1 can be held
+	private static final int TEXTURE_X_SHIFT = 14;
+	private static final int TEXTURE_MASK = (1 << 14) - 1;
+
+	// The first chunk covered by the map
+	private int minX, minY;
+	// The amount of chunks covered across and down
+	private int width, height;
+	// The cells of each chunk, indexed by row then column, or null if a chunk is empty
+	private int[][] chunks;
+	// The amount of changes made to each chunk, indexed the same way
+	private int[] versions;
+	// The amount of tiles held
+	private int size;
+	// The amount of changes made
+	private int modCount;
+
+	// Constructs an empty TileMap
+	public TileMap() {
+		this.minX = this.minY = 0;
+		this.width = this.height = 0;
+		this.chunks = new int[0][];
+		this.versions = new int[0];
+		this.size = 0;
+	}
+	// Constructs a TileMap holding the given tiles
+	public TileMap(ArrayList<Tile> tiles) {
+		this();
+		ErrorHandler.checkNull((Object) tiles, "A TileMap was given a null array list of tiles.");
+		ErrorHandler.checkNull(tiles, "A TileMap was given a null tile.");
+		// Make room for every chunk the tiles cover up front
+		if (tiles.isEmpty()) return;
+		int x1 = 0, y1 = 0, x2 = 0, y2 = 0;
+		for (int i = 0; i < tiles.size(); i++) {
+			Tile t = tiles.get(i);
+			if (i == 0 || t.getCellX() < x1) x1 = t.getCellX();
+			if (i == 0 || t.getCellY() < y1) y1 = t.getCellY();
+			if (i == 0 || t.getCellX() > x2) x2 = t.getCellX();
+			if (i == 0 || t.getCellY() > y2) y2 = t.getCellY();
+		}
+		cover(chunkOf(x1), chunkOf(y1), chunkOf(x2), chunkOf(y2));
+		for (Tile t : tiles) add(t);
+	}
+
+	// Adds a tile to its cell, returning false if the cell already holds one
+	public boolean add(Tile t) {
+		ErrorHandler.checkNull(t, "A TileMap was given a null tile.");
+		return add(t.getCellX(), t.getCellY(), t.getTextureX(), t.getTextureY(), t.getType());
+	}
+	public boolean add(int x, int y, int textureX, int textureY, TileType type) {
+		int packed = pack(textureX, textureY, type);
+		int cx = chunkOf(x), cy = chunkOf(y);
+		cover(cx, cy, cx, cy);
+		int index = (cy - minY) * width + (cx - minX);
+		if (chunks[index] == null) chunks[index] = new int[CHUNK_SIZE * CHUNK_SIZE];
+		int cell = cellOf(x, y);
+		if (chunks[index][cell] != 0) return false;
+		chunks[index][cell] = packed;
+		versions[index]++;
+		size++;
+		modCount++;
+		return true;
+	}
+
+	// Replaces the cells of a chunk with packed cells, such as those read from a level file
+	void putChunk(int cx, int cy, int[] cells) {
+		if (cells.length != CHUNK_SIZE * CHUNK_SIZE)
+			throw new IllegalArgumentException("A TileMap was given a chunk of the wrong size.");
+		// Check the cells are packed properly, counting the tiles
+		int count = 0;
+		for (int cell : cells) {
+			if (cell == 0) continue;
+			if (cell < 0 || (cell & PRESENT) == 0 || ((cell >>> TYPE_SHIFT) & TYPE_MASK) == TYPE_MASK)
+				throw new IllegalArgumentException("A TileMap was given a badly packed cell.");
+			count++;
+		}
+		cover(cx, cy, cx, cy);
+		int index = (cy - minY) * width + (cx - minX);
+		int[] old = chunks[index];
+		if (old != null) for (int cell : old) if (cell != 0) size--;
+		chunks[index] = (count == 0) ? null : cells;
+		versions[index]++;
+		size += count;
+		modCount++;
+	}
+
+	// Empties a chunk, returning whether it held anything
+	boolean removeChunk(int cx, int cy) {
+		int[] cells = getChunk(cx, cy);
+		if (cells == null) return false;
+		for (int cell : cells) if (cell != 0) size--;
+		int index = (cy - minY) * width + (cx - minX);
+		chunks[index] = null;
+		versions[index]++;
+		modCount++;
+		return true;
+	}
+
+	// Makes the map cover the given chunks, keeping the chunks it already holds
+	void cover(int x1, int y1, int x2, int y2) {
+		if (width > 0 && x1 >= minX && y1 >= minY && x2 < minX + width && y2 < minY + height) return;
+		if (width > 0) {
+			x1 = Math.min(x1, minX);
+			y1 = Math.min(y1, minY);
+			x2 = Math.max(x2, minX + width - 1);
+			y2 = Math.max(y2, minY + height - 1);
+		}
+		if ((long) (x2 - x1 + 1) * (y2 - y1 + 1) > MAX_CHUNKS)
+			throw new IllegalArgumentException("A TileMap was given tiles too far apart to hold.");
+		// Grow at least as far again as is already covered on each side that grows, so a map
+		// growing a chunk at a time only copies its chunks a few times over
+		if (width > 0) {
+			int sx1 = (x1 < minX) ? Math.min(x1, minX - width) : x1;
+			int sy1 = (y1 < minY) ? Math.min(y1, minY - height) : y1;
+			int sx2 = (x2 >= minX + width) ? Math.max(x2, minX + 2 * width - 1) : x2;
+			int sy2 = (y2 >= minY + height) ? Math.max(y2, minY + 2 * height - 1) : y2;
+			if ((long) (sx2 - sx1 + 1) * (sy2 - sy1 + 1) <= MAX_CHUNKS) {
+				x1 = sx1;
+				y1 = sy1;
+				x2 = sx2;
+				y2 = sy2;
+			}
+		}
+		int w = x2 - x1 + 1, h = y2 - y1 + 1;
+		int[][] grown = new int[w * h][];
+		int[] grownVersions = new int[w * h];
+		for (int y = 0; y < height; y++) {
+			System.arraycopy(chunks, y * width, grown, (y + minY - y1) * w + (minX - x1), width);
+			System.arraycopy(versions, y * width, grownVersions, (y + minY - y1) * w + (minX - x1), width);
+		}
+		this.chunks = grown;
+		this.versions = grownVersions;
+		this.minX = x1;
+		this.minY = y1;
+		this.width = w;
+		this.height = h;
+	}
+
+	// Returns the first chunk covered and the amount of chunks covered across and down
+	int getMinChunkX() { return minX; }
+	int getMinChunkY() { return minY; }
+	int getChunksAcross() { return width; }
+	int getChunksDown() { return height; }
+
+	// Returns the cells of a chunk, or null if it's empty
+	int[] getChunk(int cx, int cy) {
+		if (cx < minX || cy < minY || cx >= minX + width || cy >= minY + height) return null;
+		return chunks[(cy - minY) * width + (cx - minX)];
+	}
+
+	// Returns the amount of changes made to a chunk, which is 0 for those never changed
+	int getVersion(int cx, int cy) {
+		if (cx < minX || cy < minY || cx >= minX + width || cy >= minY + height) return 0;
+		return versions[(cy - minY) * width + (cx - minX)];
+	}
+
+	// Returns the packed cell, or 0 if there isn't a tile there
+	private int get(int x, int y) {
+		int[] chunk = getChunk(chunkOf(x), chunkOf(y));
+		if (chunk == null) return 0;
+		return chunk[cellOf(x, y)];
+	}
+
+	// Returns the tile in the cell, made for the caller, or null if there isn't one
+	public Tile getTile(int x, int y) {
+		int cell = get(x, y);
+		if (cell == 0) return null;
+		return new Tile(x, y, getTextureX(cell), getTextureY(cell), getType(cell));
+	}
+
+	// Returns whether the cell holds a tile
+	public boolean contains(int x, int y) {
+		return get(x, y) != 0;
+	}
+
+	// Returns whether the cell holds a tile that can be collided with
+	public boolean isCollidable(int x, int y) {
+		int cell = get(x, y);
+		return cell != 0 && ((cell >>> TYPE_SHIFT) & TYPE_MASK) != NO_COLLIDE;
+	}
+
+	// Returns the amount of tiles held
+	public int size() {
+		return size;
+	}
+
+	// Returns the amount of changes made to the map
+	public int getModCount() {
+		return modCount;
+	}
+
+	// Packs the information of a tile into a cell
+	private static int pack(int textureX, int textureY, TileType type) {
+		if (textureX < -1 || textureY < -1 || textureX > MAX_TEXTURE || textureY > MAX_TEXTURE)
+			throw new IllegalArgumentException("A TileMap was given a texture index it can't hold.");
+		int t = (type == null) ? NO_TYPE : (type == TileType.COLLIDE) ? COLLIDE : NO_COLLIDE;
+		return PRESENT | (t << TYPE_SHIFT) | ((textureX + 1) << TEXTURE_X_SHIFT) | (textureY + 1);
+	}
+
+	// Unpacks the information of a cell
+	static int getTextureX(int cell) {
+		return ((cell >>> TEXTURE_X_SHIFT) & TEXTURE_MASK) - 1;
+	}
+	static int getTextureY(int cell) {
+		return (cell & TEXTURE_MASK) - 1;
+	}
+	static TileType getType(int cell) {
+		switch ((cell >>> TYPE_SHIFT) & TYPE_MASK) {
+		case COLLIDE: return TileType.COLLIDE;
+		case NO_COLLIDE: return TileType.NO_COLLIDE;
+		default: return null;
+		}
+	}
+
+	// Returns the chunk a cell is in and where in the chunk it is
+	static int chunkOf(int x) {
+		return x >> CHUNK_SHIFT;
+	}
+	private static int cellOf(int x, int y) {
+		return ((y & (CHUNK_SIZE - 1)) << CHUNK_SHIFT) | (x & (CHUNK_SIZE - 1));
+	}
+
+}
@@ -2,12 +2,12 @@ package co.uk.fluxanoia.map;
 
 import java.awt.Color;
 import java.awt.Rectangle;
+import java.awt.geom.Point2D;
 
 import co.uk.fluxanoia.control.Controller.ControllerType;
 import co.uk.fluxanoia.entity.Entity.EntityIndex;
-import co.uk.fluxanoia.graphics.Display;
 import co.uk.fluxanoia.main.ErrorHandler;
-import javafx.geometry.Point2D;
+import co.uk.fluxanoia.main.GameContext;
 
 // The Trigger class, represents an action in the game world
 public class Trigger extends Cell{
@@ -134,8 +134,8 @@ public class Trigger extends Cell{
 	// The duration of the transitions of grid backgrounds
 	private int gridDuration;
 	
-	// The game display
-	private Display display;
+	// The game context
+	private GameContext context;
 	// The game terrain
 	private Terrain terrain;
 	// Whether the trigger has been activated or not
@@ -146,14 +146,14 @@ public class Trigger extends Cell{
 	private boolean onscreen;
 	
 	// Constructs a Tile
-	public Trigger(Display display, Terrain terrain, int x, int y, TriggerType type, TriggerEffect effect) {
+	public Trigger(GameContext context, Terrain terrain, int x, int y, TriggerType type, TriggerEffect effect) {
 		// Construct the cell
 		super(x, y, -1, -1, CellType.TRIGGER);
 		// Check for null values
-		ErrorHandler.checkNull(display, "A Trigger was given a null display.");
+		ErrorHandler.checkNull(context, "A Trigger was given a null context.");
 		ErrorHandler.checkNull(terrain, "A Trigger was given a null terrain.");
 		// Assign values
-		this.display = display;
+		this.context = context;
 		this.terrain = terrain;
 		this.type = type;
 		this.effect = effect;
@@ -232,14 +232,14 @@ public class Trigger extends Cell{
 				break;
 			case ENTITY:
 				Rectangle bounds = this.getBounds();
-				terrain.addEntity(entityIndex, ControllerType.getController(entityController, display.getListener()), 
+				terrain.addEntity(entityIndex, ControllerType.getController(entityController, context.getListener()), 
 						(int) bounds.getCenterX(), (int) bounds.getCenterY());
 				break;
 			case MUSIC:
-				display.getAudioManager().changeMusic(musicTransition, transitionDuration, musicPath);
+				context.getAudioManager().changeMusic(musicTransition, transitionDuration, musicPath);
 				break;
 			case SFX:
-				display.getAudioManager().playSFX(musicPath);
+				context.getAudioManager().playSFX(musicPath);
 				break;
 			}
 			return true;
@@ -279,14 +279,14 @@ public class Trigger extends Cell{
 				} catch (NumberFormatException e) {
 					vx = vy = 0;
 				}
-				this.gridForeVector = new Point2D(vx, vy);
+				this.gridForeVector = new Point2D.Double(vx, vy);
 				try {
 					vx = Double.valueOf(split[7]);
 					vy = Double.valueOf(split[8]);
 				} catch (NumberFormatException e) {
 					vx = vy = 0;
 				}
-				this.gridBackVector = new Point2D(vx, vy);
+				this.gridBackVector = new Point2D.Double(vx, vy);
 			}
 			if (split.length > 10) {
 				this.gridOpacity = Double.valueOf(split[9]);
@@ -301,7 +301,7 @@ public class Trigger extends Cell{
 				this.cameraMovement = CameraMovement.parse(split[2]);
 			}
 			if (split.length > 4) {
-				this.cameraScroll = new Point2D(
+				this.cameraScroll = new Point2D.Double(
 						Double.valueOf(split[3]),
 						Double.valueOf(split[4]));
 			}
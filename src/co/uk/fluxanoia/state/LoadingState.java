@@ -4,6 +4,7 @@ import java.awt.Graphics2D;
 
 import co.uk.fluxanoia.graphics.Background;
 import co.uk.fluxanoia.graphics.Display;
+import co.uk.fluxanoia.graphics.Drawable;
 import co.uk.fluxanoia.main.AudioManager;
 import co.uk.fluxanoia.map.Trigger.MusicTransition;
 import co.uk.fluxanoia.util.Tween.TweenType;
@@ -15,6 +16,8 @@ public class LoadingState extends State {
 	private Background fore;
 	// Whether audio was loaded on the last update
 	private boolean wasLoaded;
+	// Whether audio was loaded when the state was last captured
+	private boolean drawnLoaded;
 
 	// Constructs a LoadingState
 	public LoadingState(StateManager stateManager, Display display) {
@@ -22,6 +25,7 @@ public class LoadingState extends State {
 		super(stateManager, display);
 		// Initialises values
 		wasLoaded = false;
+		drawnLoaded = false;
 		// Initialises the backgrounds
 		fore = new Background(
 				display.getResourceManager().getImage("res\\menu\\background_fore.png"), 
@@ -46,7 +50,7 @@ public class LoadingState extends State {
 	// Updates the states
 	public void update() {
 		if (!this.getDisplay().getAudioManager().isLoaded()) {
-			this.pushClipBounds(Display.drawBounds());
+			this.pushClipBounds(Drawable.drawBounds());
 			return;
 		}
 		if (!wasLoaded) {
@@ -59,9 +63,15 @@ public class LoadingState extends State {
 		}
 	}
 
+	// Copies whether audio is loaded along with the components
+	public void capture() {
+		drawnLoaded = this.getDisplay().getAudioManager().isLoaded();
+		super.capture();
+	}
+
 	// Draws the state
 	public void draw(Graphics2D g) {
-		if (this.getDisplay().getAudioManager().isLoaded()) {
+		if (drawnLoaded) {
 			this.drawComponents(g);
 		} else {
 			this.getDisplay().drawLoading(g);
@@ -1,15 +1,17 @@
 package co.uk.fluxanoia.state;
 
 import java.awt.Graphics2D;
-import java.awt.Rectangle;
 import java.util.HashMap;
 
+import co.uk.fluxanoia.graphics.DirtyRegion;
 import co.uk.fluxanoia.graphics.Display;
 import co.uk.fluxanoia.graphics.Drawable;
 import co.uk.fluxanoia.graphics.GridBackground;
 import co.uk.fluxanoia.main.ErrorHandler;
 import co.uk.fluxanoia.main.GameMode;
 import co.uk.fluxanoia.main.Main;
+import co.uk.fluxanoia.main.Profiler;
+import co.uk.fluxanoia.main.Profiler.Phase;
 import co.uk.fluxanoia.map.Camera;
 import co.uk.fluxanoia.state.State.StateType;
 
@@ -30,6 +32,10 @@ public class StateManager extends GameMode {
 	private GridBackground gridBackground;
 	// The camera
 	private Camera camera;
+	// The area that needs redrawing, handed to the display
+	private DirtyRegion clipBounds;
+	// The state drawn, or null if the StateManager was closed when last captured
+	private State drawnState;
 	
 	// Constructs the StateManager object
 	public StateManager(Display display) {
@@ -38,6 +44,8 @@ public class StateManager extends GameMode {
 		pass_ID = -1;
 		gridBackground = new GridBackground(0, 0, 0, 0);
 		camera = new Camera(0, 0, Main.DRAW_WIDTH, Main.DRAW_HEIGHT);
+		clipBounds = new DirtyRegion();
+		drawnState = null;
 		// Initialise the states
 		states = new HashMap<>();
 		states.put(StateType.LOADING_STATE.getID(), new LoadingState(this, display));
@@ -100,28 +108,52 @@ public class StateManager extends GameMode {
 	public void update() {
 		// If the StateManager is closed, return
 		if (closed) return;
+		long time = Profiler.start();
 		// Update the background
 		this.camera.update();
 		gridBackground.update();
 		// Update the state
 		updateState();
+		Profiler.record(Phase.STATE_UPDATE, time);
 	}
 	
-	// Draws the active layer
+	// Copies what the background and active layer are drawn from
+	public void capture() {
+		drawnState = closed ? null : states.get(currentState.getID());
+		if (drawnState == null) return;
+		gridBackground.capture();
+		drawnState.capture();
+	}
+	
+	// Draws the layer that was active when last captured
 	public void draw(Graphics2D g) {
-		if (closed) return;
-		if (camera == null) return;
+		if (drawnState == null) return;
 		gridBackground.draw(g);
-		states.get(currentState.getID()).draw(g);
+		drawnState.draw(g);
 	}
 
 	// Gets the clip bounds of the active layer
-	public Rectangle dropClipBounds() {
-		if (camera.dropMoved()) return Display.drawBounds();
-		return Drawable.encapsulate(new Rectangle[] {
-				gridBackground.dropClipBounds(),
-				states.get(currentState.getID()).dropClipBounds()
-				});
+	public DirtyRegion dropClipBounds() {
+		clipBounds.clear();
+		clipBounds.add(gridBackground.dropClipBounds());
+		clipBounds.add(states.get(currentState.getID()).dropClipBounds());
+		// If the camera moved, everything needs redrawing
+		if (camera.dropMoved()) {
+			clipBounds.clear();
+			clipBounds.add(Drawable.drawBounds());
+		}
+		return clipBounds;
+	}
+	
+	// Adds the areas the captured layer draws differently between updates
+	public void addBlendBounds(DirtyRegion r) {
+		if (drawnState != null) drawnState.addBlendBounds(r);
+	}
+	
+	// Returns whether anything needs redrawing
+	public boolean isDirty() {
+		return camera.hasMoved() || gridBackground.hasClipBounds()
+				|| states.get(currentState.getID()).hasClipBounds();
 	}
 	
 	// Sets the passed ID
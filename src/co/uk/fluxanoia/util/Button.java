@@ -34,10 +34,14 @@ public class Button {
 	private boolean entered;
 	// Whether the button has been exited or not
 	private boolean exited;
+	// The tween offsets and states the button is drawn with, copied by capture
+	private double drawn_x_offset, drawn_y_offset;
+	private boolean drawn_hovered, drawn_pressed;
 	
-	// Constructs a Button
-	public Button(int ID, Dimension dimensions, String text, int x, int y) {
+	// Constructs a Button, its tweens moved by the given engine
+	public Button(TweenEngine tweens, int ID, Dimension dimensions, String text, int x, int y) {
 		// Check for null values
+		ErrorHandler.checkNull(tweens, "A Button was given a null tween engine.");
 		ErrorHandler.checkNull(dimensions, "A Button was given a null dimension.");
 		ErrorHandler.checkNull(text, "A Button was given a null text.");
 		// Assign values
@@ -46,8 +50,8 @@ public class Button {
 		this.text = text;
 		this.x = x;
 		this.y = y;
-		this.x_tween = new Tween(0);
-		this.y_tween = new Tween(0);
+		this.x_tween = tweens.create(0);
+		this.y_tween = tweens.create(0);
 		// Initialises values
 		this.hovered = false;
 		this.pressed = false;
@@ -77,25 +81,31 @@ public class Button {
 				this.updated = true;
 			}
 		}
-		// Update the x, y values
-		this.x_tween.update();
-		this.y_tween.update();
 		// Checked whether the x, y values have moved
 		this.updated |= this.x_tween.dropMoved();
 		this.updated |= this.y_tween.dropMoved();
 	}
 	
-	// Draws the button
+	// Copies the position and state the button is drawn with
+	public void capture() {
+		this.drawn_x_offset = x_tween.value();
+		this.drawn_y_offset = y_tween.value();
+		this.drawn_hovered = hovered;
+		this.drawn_pressed = pressed;
+	}
+	
+	// Draws the button as it was last captured
 	public void draw(Graphics2D g, Font font, Color text_color) {
 		ErrorHandler.checkNull(font, "A Button was given a null font.");
 		ErrorHandler.checkNull(text_color, "A Button was given a null text colour.");
-		if (hovered) {
+		if (drawn_hovered) {
 			g.setColor(new Color(255, 255, 255, 40));
 		}
-		if (pressed) {
+		if (drawn_pressed) {
 			g.setColor(new Color(255, 255, 255, 120));
 		}
-		if (hovered || pressed) g.fill(this.getBounds());
+		if (drawn_hovered || drawn_pressed) g.fill(new Rectangle(
+				new Point((int) drawn_x_offset + x, (int) drawn_y_offset + y), dimensions));
 
 		g.setColor(text_color);
 		g.setFont(font);
@@ -103,8 +113,8 @@ public class Button {
 		double text_buffer_y = dimensions.getHeight() - (g.getFontMetrics().getHeight() / 2);
 		g.drawString(
 				text, 
-				(int) (x + x_tween.value() + text_buffer_x),
-				(int) (y + y_tween.value() + text_buffer_y)
+				(int) (x + drawn_x_offset + text_buffer_x),
+				(int) (y + drawn_y_offset + text_buffer_y)
 		);
 	}
 	
@@ -4,10 +4,10 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Graphics2D;
-import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
 
+import co.uk.fluxanoia.graphics.DirtyRegion;
 import co.uk.fluxanoia.graphics.Display;
 import co.uk.fluxanoia.graphics.Drawable;
 import co.uk.fluxanoia.main.AudioManager;
@@ -28,12 +28,16 @@ public class ButtonManager extends Drawable {
 	private Display display;
 	// The list of buttons
 	private ArrayList<Button> buttons;
+	// The engine moving the buttons' tweens
+	private TweenEngine tweens;
 	// The colour of the text of the buttons
 	private Color text_color;
 	// The font of the buttons
 	private Font font;
 	// The list of button events
 	private ArrayList<Integer> button_queue;
+	// The areas of the buttons that need redrawing
+	private DirtyRegion bounds;
 	
 	// Constructs a ButtonManager
 	public ButtonManager(Display display) {
@@ -46,14 +50,18 @@ public class ButtonManager extends Drawable {
 		// Initialise values
 		this.button_queue = new ArrayList<Integer>();
 		this.buttons = new ArrayList<Button>();
+		this.tweens = new TweenEngine();
 		this.font = DEFAULT_FONT;
 		this.text_color = DEFAULT_TEXT_COLOR;
+		this.bounds = new DirtyRegion();
 	}
 	
 	// Updates the button manager
 	public void update() {
-		// Initialises the list that will contain the clip bounds
-		ArrayList<Rectangle> bounds = new ArrayList<Rectangle>();
+		// Empties the region that will contain the clip bounds
+		bounds.clear();
+		// Move the buttons
+		tweens.update();
 		// Iterate through the buttons
 		for (Button b : buttons) {
 			// Press the buttons if necessary
@@ -76,13 +84,17 @@ public class ButtonManager extends Drawable {
 			if (b.dropExited()) display.getAudioManager().playSFX(AudioManager.BUTTON_HOVER_EXIT);
 		}
 		// Check if the bounds are not empty
-		Rectangle r = encapsulate(bounds);
-		if (Display.area(r) != 0) {
-			// Push the bounds containing the bounds required
-			this.pushClipBounds(r);
+		if (!bounds.isEmpty()) {
+			// Push the bounds required
+			this.pushClipBounds(bounds);
 		}
 	}
 	
+	// Copies the positions and states of the buttons
+	public void capture() {
+		for (Button b : buttons) b.capture();
+	}
+	
 	// Draws the button
 	public void draw(Graphics2D g) {
 		// Iterate through all the buttons and draw them
@@ -95,7 +107,7 @@ public class ButtonManager extends Drawable {
 		// Create the button
 		if (x == CENTRE_VALUE) x = (int) ((Main.DRAW_WIDTH - dimensions.getWidth()) / 2);
 		if (y == CENTRE_VALUE) y = (int) ((Main.DRAW_HEIGHT - dimensions.getHeight()) / 2);
-		Button b = new Button(ID, dimensions, text, x, y);
+		Button b = new Button(tweens, ID, dimensions, text, x, y);
 		// Add it to our array
 		buttons.add(b);
 	}
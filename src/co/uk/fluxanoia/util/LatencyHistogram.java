@@ -0,0 +1,78 @@
+package co.uk.fluxanoia.util;
+
+// The LatencyHistogram class, counts durations in log-linear buckets without allocating
+public class LatencyHistogram {
+
+	// The amount of bits of precision kept within each power of two
+	private static final int SUB_BITS = 5;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	// The largest power of two that can be recorded (about 68 seconds in nanoseconds)
+	private static final int MAX_EXPONENT = 36;
+
+	// The count in each bucket
+	private final long[] counts;
+	// The amount of values recorded, their sum and the largest
+	private long total, sum, max;
+
+	// Constructs a LatencyHistogram
+	public LatencyHistogram() {
+		this.counts = new long[(MAX_EXPONENT - SUB_BITS + 2) * SUB_COUNT];
+		this.reset();
+	}
+
+	// Records a duration in nanoseconds
+	public void record(long value) {
+		if (value < 0) value = 0;
+		counts[index(value)]++;
+		total++;
+		sum += value;
+		if (value > max) max = value;
+	}
+
+	// Clears all recorded values
+	public void reset() {
+		for (int i = 0; i < counts.length; i++) counts[i] = 0;
+		total = 0;
+		sum = 0;
+		max = 0;
+	}
+
+	// Returns the value that the fraction q of recorded values are at or below
+	public long percentile(double q) {
+		if (total == 0) return 0;
+		long rank = (long) Math.ceil(q * total);
+		if (rank < 1) rank = 1;
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) return Math.min(highest(i), max);
+		}
+		return max;
+	}
+
+	// Returns the amount of values recorded
+	public long getCount() { return total; }
+	// Returns the mean of the recorded values
+	public double getMean() { return (total == 0) ? 0 : (double) sum / total; }
+	// Returns the largest recorded value
+	public long getMax() { return max; }
+
+	// Returns the bucket index of a value
+	private static int index(long value) {
+		if (value < SUB_COUNT) return (int) value;
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		if (exponent > MAX_EXPONENT) return (MAX_EXPONENT - SUB_BITS + 2) * SUB_COUNT - 1;
+		int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+		return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+	}
+
+	// Returns the highest value that falls in a bucket
+	private static long highest(int index) {
+		if (index < SUB_COUNT) return index;
+		int exponent = index / SUB_COUNT + SUB_BITS - 1;
+		long sub = index % SUB_COUNT;
+		long lowest = (1L << exponent) + (sub << (exponent - SUB_BITS));
+		return lowest + (1L << (exponent - SUB_BITS)) - 1;
+	}
+
+}
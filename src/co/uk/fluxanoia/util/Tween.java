@@ -2,7 +2,8 @@ package co.uk.fluxanoia.util;
 
 import co.uk.fluxanoia.main.ErrorHandler;
 
-// The TweenValue class, allows for smooth movements
+// The Tween class, allows for smooth movements, either holding its own value or a handle to one
+// held by a TweenEngine
 public class Tween {
 
 	// The TweenType enum, classifying different transition types
@@ -40,162 +41,202 @@ public class Tween {
 		}
 	}
 	
+	// The amount of steps the precomputed curves are sampled at
+	private static final int CURVE_SAMPLES = 1024;
+	// The bouncy curve, sampled from start to end
+	private static final double[] ELASTIC_CURVE = sampleElastic();
+	
+	// The engine holding the tween and where it is held, or null if the tween holds itself
+	private final TweenEngine engine;
+	private final int slot;
+	// --- The following are only used by tweens that hold themselves
 	// The TweenType of the Tween
 	private TweenType tweenType;
 	// Whether the component has moved or not
 	private boolean moved;
 	// Whether the tween value has finished moving or not
 	private boolean finished;
-	// --- The following are in units of updates
-	// How long the tween should wait before moving
-	private int hold;
-	// The current progression into the tween
-	private int time;
-	// The duration of the tween
-	private int duration;
-	// The start and end values of the tween
-	private double start, end;
+	// How long the tween should wait before moving, its progression and its duration, in updates
+	private int hold, time, duration;
+	// The start, end and current values of the tween
+	private double start, end, current;
 	
-	// Constructs a TweenValue
+	// Constructs a Tween holding itself, moved on by calling update; owners with several
+	// tweens should make them with a TweenEngine instead
 	public Tween(double t) {
-		// Initialise values
-	    this.tweenType = TweenType.LINEAR;
-	    this.set(t);
+		this.engine = null;
+		this.slot = -1;
+		this.tweenType = TweenType.LINEAR;
+		this.set(t);
+	}
+	// Constructs a handle to a tween held by an engine, moved on with the rest of the engine
+	Tween(TweenEngine engine, int slot) {
+		this.engine = engine;
+		this.slot = slot;
 	}
 
-	// Updates the tween value
+	// Moves a tween holding itself on, tweens held by an engine being moved on by the engine
 	public void update() {
+		if (engine != null) return;
 		// If we are holding motion, decrement and return
-	    if (this.hold > 0) {
-	        this.hold--;
-	        if (hold == 0) this.moved = true;
-	        return;
-	    }
-	    // When we are at the end of the tween
-	    if (this.time == this.duration) {
-	    	// If we haven't said we're finished
-	        if (!finished) {
-		    	// Say we've moved one more time and finish
-	            this.moved = true;
-	            this.finished = true;
-	        }
-	    } else {
-	    	// Add to the time and say we've moved
-	        this.time++;
-	        this.moved = true;
-	    }
-	} 
+		if (this.hold > 0) {
+			this.hold--;
+			if (hold == 0) {
+				this.moved = true;
+				refresh();
+			}
+			return;
+		}
+		// When we are at the end of the tween
+		if (this.time == this.duration) {
+			// If we haven't said we're finished, say we've moved one more time and finish
+			if (!finished) {
+				this.moved = true;
+				this.finished = true;
+			}
+		} else {
+			// Add to the time and say we've moved
+			this.time++;
+			this.moved = true;
+			refresh();
+		}
+	}
 
 	// Sets the tween to move toward a value
 	public void move(TweenType tweenType, double end, int duration, int hold) {
 		ErrorHandler.checkNull(tweenType, "A Tween was given a null type.");
-		// Move the tween to the end of its current movement
-	    this.start = this.value();
-		// Update the type of tween
-	    this.tweenType = tweenType;
-	    // Set the time to the beginning
-	    this.time = 0;
-	    // Set the duration
-	    this.duration = duration;
-	    // Set the holding time
-	    this.hold = hold;
-	    // Set the destination
-	    this.end = end;
-	    // Say we've moved
-	    moved = true;
-	    // Say we're not finished
-	    finished = false;
+		if (engine != null) {
+			engine.move(slot, tweenType, end, duration, hold);
+			return;
+		}
+		// Move the tween on from where it is now
+		this.start = this.current;
+		begin(tweenType, end, duration, hold);
 	}
 	
 	// Sets the tween to move toward a value - forces completion of last movement
 	public void push(TweenType tweenType, double end, int duration, int hold) {
 		ErrorHandler.checkNull(tweenType, "A Tween was given a null type.");
-		// Update the type of tween
-	    this.tweenType = tweenType;
-	    // Set the time to the beginning
-	    this.time = 0;
-	    // Set the duration
-	    this.duration = duration;
-	    // Set the holding time
-	    this.hold = hold;
-	    // Move the tween to the end of its current movement
-	    this.start = this.end;
-	    // Set the destination
-	    this.end = end;
-	    // Say we've moved
-	    moved = true;
-	    // Say we're not finished
-	    finished = false;
+		if (engine != null) {
+			engine.push(slot, tweenType, end, duration, hold);
+			return;
+		}
+		// Move the tween on from the end of its current movement
+		this.start = this.end;
+		begin(tweenType, end, duration, hold);
+	}
+
+	// Starts a tween holding itself moving
+	private void begin(TweenType tweenType, double end, int duration, int hold) {
+		this.tweenType = tweenType;
+		this.time = 0;
+		this.duration = duration;
+		this.hold = hold;
+		this.end = end;
+		this.moved = true;
+		this.finished = false;
+		refresh();
+	}
+
+	// Works out the value of a tween holding itself, kept until it next moves
+	private void refresh() {
+		if (time == duration) current = end;
+		else if (hold > 0) current = start;
+		else current = value(tweenType, start, end, time, duration);
 	}
 
 	// Set the tween to a value
 	public void set(double s) {
+		if (engine != null) {
+			engine.set(slot, s);
+			return;
+		}
 		// Reset all the values to default and set a value to remain at
-	    this.time = 0;
-	    this.duration = 0;
-	    this.hold = 0;
-	    this.start = s;
-	    this.end = s;
-	    this.moved = true;
-	    this.finished = true;
+		this.time = 0;
+		this.duration = 0;
+		this.hold = 0;
+		this.start = s;
+		this.end = s;
+		this.current = s;
+		this.moved = true;
+		this.finished = true;
 	}
 
-	// Returns the value of a tween value
+	// Returns the value of a tween value, worked out when it last moved
 	public double value() {
-	    if (this.time == this.duration) return this.end;
-	    if (this.hold > 0) return this.start;
-
-	    switch (this.tweenType) {
-	        case LINEAR: return linearTween(start, end, time, duration);
-	        case EASE_IN: return easeInTween(start, end, time, duration);
-	        case EASE_OUT: return easeOutTween(start, end, time, duration);
-	        case ELASTIC: return elasticTween(start, end, time, duration);
-	        default: return 0;
-	    } 
+		return (engine != null) ? engine.value(slot) : current;
 	}
 	
 	// Returns whether the tween value has reached its end value
 	public boolean hasArrived() {
-	    if (this.time == this.duration) return true;
-	    return false;
+		return (engine != null) ? engine.hasArrived(slot) : time == duration;
 	}
 
 	// Returns the redraw value and sets it to false
 	public boolean dropMoved() {
-	    if (this.moved) {
-	        this.moved = false;
-	        return true;
-	    }
-	    return false;
+		if (engine != null) return engine.dropMoved(slot);
+		if (this.moved) {
+			this.moved = false;
+			return true;
+		}
+		return false;
 	}
 	
 	// Returns the current destination
 	public double getDestination() {
-		return this.end;
+		return (engine != null) ? engine.getDestination(slot) : end;
 	}
 
+	// Returns the value of a tween of a type a given time into moving
+	public static double value(TweenType tweenType, double start, double end, int time, int duration) {
+	    if (time == duration) return end;
+	    switch (tweenType) {
+	        case LINEAR: return linearTween(start, end, time, duration);
+	        case EASE_IN: return easeInTween(start, end, time, duration);
+	        case EASE_OUT: return easeOutTween(start, end, time, duration);
+	        case ELASTIC: return elasticTween(start, end, time, duration);
+	        default: return 0;
+	    } 
+	}
+	
 	// --- Each following function takes parameters: start, end, time, duration
 
 	// A linear tween
-	private double linearTween(double s, double e, int t, int d) {
+	private static double linearTween(double s, double e, int t, int d) {
 	    return s + ((double) t / (double) d) * (e - s);
 	}
 
 	// An ease in tween
-	private double easeInTween(double s, double e, int t, int d) {
-	    return s + Math.pow((double) t / (double) d, 3) * (e - s);
+	private static double easeInTween(double s, double e, int t, int d) {
+	    double inter = (double) t / (double) d;
+	    return s + inter * inter * inter * (e - s);
 	}
 
 	// An ease out tween
-	private double easeOutTween(double s, double e, int t, int d) {
-	    return s + (1 - Math.pow(1 - ((double) t / (double) d), 3)) * (e - s);
+	private static double easeOutTween(double s, double e, int t, int d) {
+	    double inter = 1 - ((double) t / (double) d);
+	    return s + (1 - inter * inter * inter) * (e - s);
 	}
 
-	// A bouncy tween
-	private double elasticTween(double s, double e, int t, int d) {
+	// A bouncy tween, read from its precomputed curve
+	private static double elasticTween(double s, double e, int t, int d) {
+	    double pos = ((double) t / (double) d) * CURVE_SAMPLES;
+	    int i = (int) pos;
+	    if (i >= CURVE_SAMPLES) return e;
+	    double c = ELASTIC_CURVE[i] + (pos - i) * (ELASTIC_CURVE[i + 1] - ELASTIC_CURVE[i]);
+	    return s + c * (e - s);
+	}
+
+	// Returns the bouncy curve from 0 to 1, sampled evenly
+	private static double[] sampleElastic() {
 	    double p = 0.3;
-	    double inter = (double) t / (double) d;
-	    return s + (Math.pow(2,-10*inter) * Math.sin((inter-p/4)*(2*Math.PI)/p) + 1) * (e - s);
+	    double inter;
+	    double[] curve = new double[CURVE_SAMPLES + 1];
+	    for (int i = 0; i <= CURVE_SAMPLES; i++) {
+	        inter = (double) i / CURVE_SAMPLES;
+	        curve[i] = Math.pow(2,-10*inter) * Math.sin((inter-p/4)*(2*Math.PI)/p) + 1;
+	    }
+	    return curve;
 	}
 	
 }
@@ -0,0 +1,210 @@
+package co.uk.fluxanoia.util;
+
+import java.util.Arrays;
+
+import co.uk.fluxanoia.util.Tween.TweenType;
+
+// The TweenEngine class, holds a group of tweens in parallel arrays and
+// moves on only the ones that are moving each update
+public class TweenEngine {
+
+	// The amount of tweens room is made for by default
+	private static final int DEFAULT_CAPACITY = 8;
+	// The tween types, indexed by ordinal
+	private static final TweenType[] TYPES = TweenType.values();
+
+	// The type of each tween, as an ordinal
+	private byte[] type;
+	// The start, end and current values of each tween
+	private double[] start, end, current;
+	// --- The following are in units of updates
+	// How long each tween should wait before moving, its progression and its duration
+	private int[] hold, time, duration;
+	// Whether each tween has moved and whether it has finished moving
+	private boolean[] moved, finished;
+	// The amount of tweens
+	private int size;
+	// The tweens that still have to be moved on, and where each is in that list or -1
+	private int[] active, activeIndex;
+	private int activeCount;
+
+	// Constructs an empty TweenEngine
+	public TweenEngine() {
+		this(DEFAULT_CAPACITY);
+	}
+	public TweenEngine(int capacity) {
+		if (capacity <= 0) throw new IllegalArgumentException("A TweenEngine was given a non-positive capacity.");
+		// Initialise values
+		this.type = new byte[capacity];
+		this.start = new double[capacity];
+		this.end = new double[capacity];
+		this.current = new double[capacity];
+		this.hold = new int[capacity];
+		this.time = new int[capacity];
+		this.duration = new int[capacity];
+		this.moved = new boolean[capacity];
+		this.finished = new boolean[capacity];
+		this.active = new int[capacity];
+		this.activeIndex = new int[capacity];
+		this.size = 0;
+		this.activeCount = 0;
+	}
+
+	// Makes a new tween resting at a value
+	public Tween create(double t) {
+		return new Tween(this, allocate(t));
+	}
+
+	// Makes room for a new tween resting at a value and returns its slot
+	int allocate(double t) {
+		if (size == type.length) grow();
+		int slot = size++;
+		activeIndex[slot] = -1;
+		set(slot, t);
+		return slot;
+	}
+
+	// Doubles the room for tweens
+	private void grow() {
+		int n = type.length * 2;
+		type = Arrays.copyOf(type, n);
+		start = Arrays.copyOf(start, n);
+		end = Arrays.copyOf(end, n);
+		current = Arrays.copyOf(current, n);
+		hold = Arrays.copyOf(hold, n);
+		time = Arrays.copyOf(time, n);
+		duration = Arrays.copyOf(duration, n);
+		moved = Arrays.copyOf(moved, n);
+		finished = Arrays.copyOf(finished, n);
+		active = Arrays.copyOf(active, n);
+		activeIndex = Arrays.copyOf(activeIndex, n);
+	}
+
+	// Updates every moving tween
+	public void update() {
+		int i = 0;
+		while (i < activeCount) {
+			// Only move on if the tween didn't stop
+			if (step(active[i])) i++;
+		}
+	}
+
+	// Moves a tween on, returning false and dropping it from the active list if it has stopped
+	private boolean step(int slot) {
+		// If we are holding motion, decrement and return
+		if (hold[slot] > 0) {
+			hold[slot]--;
+			if (hold[slot] == 0) {
+				moved[slot] = true;
+				refresh(slot);
+			}
+			return true;
+		}
+		// When we are at the end of the tween
+		if (time[slot] == duration[slot]) {
+			// Say we've moved one more time and finish
+			if (!finished[slot]) {
+				moved[slot] = true;
+				finished[slot] = true;
+			}
+			deactivate(slot);
+			return false;
+		}
+		// Add to the time and say we've moved
+		time[slot]++;
+		moved[slot] = true;
+		refresh(slot);
+		return true;
+	}
+
+	// Works out the value of a tween, kept until it next moves
+	private void refresh(int slot) {
+		if (time[slot] == duration[slot]) current[slot] = end[slot];
+		else if (hold[slot] > 0) current[slot] = start[slot];
+		else current[slot] = Tween.value(TYPES[type[slot]], start[slot], end[slot], time[slot], duration[slot]);
+	}
+
+	// Adds a tween to the active list
+	private void activate(int slot) {
+		if (activeIndex[slot] != -1) return;
+		activeIndex[slot] = activeCount;
+		active[activeCount++] = slot;
+	}
+
+	// Removes a tween from the active list by moving the last one into its place
+	private void deactivate(int slot) {
+		int i = activeIndex[slot];
+		if (i == -1) return;
+		int last = active[--activeCount];
+		active[i] = last;
+		activeIndex[last] = i;
+		activeIndex[slot] = -1;
+	}
+
+	// Sets a tween to move toward a value from where it is now
+	void move(int slot, TweenType tweenType, double end, int duration, int hold) {
+		this.start[slot] = value(slot);
+		begin(slot, tweenType, end, duration, hold);
+	}
+
+	// Sets a tween to move toward a value from the end of its last movement
+	void push(int slot, TweenType tweenType, double end, int duration, int hold) {
+		this.start[slot] = this.end[slot];
+		begin(slot, tweenType, end, duration, hold);
+	}
+
+	// Starts a tween moving
+	private void begin(int slot, TweenType tweenType, double end, int duration, int hold) {
+		this.type[slot] = (byte) tweenType.ordinal();
+		this.time[slot] = 0;
+		this.duration[slot] = duration;
+		this.hold[slot] = hold;
+		this.end[slot] = end;
+		this.moved[slot] = true;
+		this.finished[slot] = false;
+		refresh(slot);
+		activate(slot);
+	}
+
+	// Sets a tween to rest at a value
+	void set(int slot, double s) {
+		this.time[slot] = 0;
+		this.duration[slot] = 0;
+		this.hold[slot] = 0;
+		this.start[slot] = s;
+		this.end[slot] = s;
+		this.current[slot] = s;
+		this.moved[slot] = true;
+		this.finished[slot] = true;
+		deactivate(slot);
+	}
+
+	// Returns the value of a tween
+	double value(int slot) {
+		return current[slot];
+	}
+
+	// Returns whether a tween has reached its end value
+	boolean hasArrived(int slot) {
+		return time[slot] == duration[slot];
+	}
+
+	// Returns whether a tween has moved and says it hasn't
+	boolean dropMoved(int slot) {
+		if (moved[slot]) {
+			moved[slot] = false;
+			return true;
+		}
+		return false;
+	}
+
+	// Returns a tween's destination
+	double getDestination(int slot) {
+		return end[slot];
+	}
+
+	// Returns the amount of tweens and the amount still moving
+	public int size() { return size; }
+	public int getActive() { return activeCount; }
+
+}